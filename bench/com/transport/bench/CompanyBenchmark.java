@@ -0,0 +1,81 @@
+package com.transport.bench;
+
+import com.transport.sim.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Company lookups the views call per row, market refreshes and the random
+ * factories used by them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompanyBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int vehicles;
+
+    private Company company;
+    private List<Driver> drivers;
+    private List<Vehicle> fleet;
+    private SimRandom rng;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        company = Fixtures.simulator(vehicles, vehicles / 2).getCompany();
+        drivers = company.getDrivers();
+        fleet = company.getVehicles();
+        rng = new SimRandom(Fixtures.SEED);
+    }
+
+    // Walks the roster so lookups are not all served from one cache line
+    private int nextIndex() {
+        if (++next >= vehicles) next = 0;
+        return next;
+    }
+
+    @Benchmark
+    public boolean isDriverBusy() {
+        return company.isDriverBusy(drivers.get(nextIndex()));
+    }
+
+    @Benchmark
+    public boolean isVehicleBusy() {
+        return company.isVehicleBusy(fleet.get(nextIndex()));
+    }
+
+    @Benchmark
+    public Driver getDriverForVehicle() {
+        return company.getDriverForVehicle(fleet.get(nextIndex()));
+    }
+
+    /** What a turn pays: the offers are only generated once somebody opens the market. */
+    @Benchmark
+    public Company refreshJobMarket() {
+        company.refreshJobMarket();
+        return company;
+    }
+
+    /** Refresh followed by generating the offers, as with the jobs view open. */
+    @Benchmark
+    public int refreshAndOpenJobMarket() {
+        company.refreshJobMarket();
+        return company.getJobMarket().size();
+    }
+
+    @Benchmark
+    public Job randomJob() {
+        return Job.randomJob(rng);
+    }
+
+    @Benchmark
+    public VehicleOffer randomOffer() {
+        return VehicleOffer.randomOffer(rng);
+    }
+}
@@ -0,0 +1,48 @@
+package com.transport.bench;
+
+import com.transport.sim.*;
+import java.util.List;
+
+/**
+ * Builds simulators of a given size for the benchmarks. Every fixture is
+ * seeded, so runs are comparable between commits.
+ */
+final class Fixtures {
+    static final long SEED = 42;
+
+    private Fixtures() {}
+
+    /**
+     * A CASUAL game with {@code vehicles} vehicles, as many drivers (each with its
+     * own vehicle) and {@code jobs} of them out on a job. The company gets enough
+     * cash to never go bankrupt while being measured.
+     */
+    static Simulator simulator(int vehicles, int jobs) {
+        Simulator sim = new Simulator(new GameSettings("Bench", GameSettings.Difficulty.CASUAL), SEED);
+        Company c = sim.getCompany();
+        c.addCash(1e12);
+        SimRandom rng = new SimRandom(SEED);
+        for (int i = c.getVehicles().size(); i < vehicles; i++) {
+            c.addVehicle(new Vehicle(Vehicle.generateRandomName(rng), 5000 + rng.nextInt(5000), 50 + rng.nextInt(51), 0.1));
+        }
+        for (int i = c.getDrivers().size(); i < vehicles; i++) {
+            c.addDriver(new Driver("Kierowca " + i, 30 + rng.nextInt(70), 400 + rng.nextInt(300)));
+        }
+        for (int i = 0; i < vehicles; i++) c.getDrivers().get(i).setAssignedVehicle(c.getVehicles().get(i));
+        topUpJobs(sim, jobs, rng);
+        return sim;
+    }
+
+    /** Sends idle crews out on random jobs until {@code jobs} of them are in transit, or every crew is. */
+    static void topUpJobs(Simulator sim, int jobs, SimRandom rng) {
+        Company c = sim.getCompany();
+        List<Driver> drivers = c.getDrivers();
+        for (int i = 0; i < drivers.size() && c.getActiveJobs().size() < jobs; i++) {
+            Driver d = drivers.get(i);
+            if (c.isDriverBusy(d) || !d.hasVehicle()) continue;
+            Job j = Job.randomJob(rng);
+            c.addJob(j);
+            j.assign(d, d.getAssignedVehicle());
+        }
+    }
+}
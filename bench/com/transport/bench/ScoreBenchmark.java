@@ -0,0 +1,90 @@
+package com.transport.bench;
+
+import com.transport.score.ScoreCodec;
+import com.transport.score.ScoreRecord;
+import com.transport.score.ScoreService;
+import com.transport.sim.Simulator;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Final score calculation and loading the ranking from a directory of
+ * synthetic .score files. Each kind of benchmark has a state of its own, so
+ * it only runs over its own parameter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Game {
+        @Param({"10", "1000", "100000"})
+        int vehicles;
+
+        final ScoreService scoreService = new ScoreService();
+        Simulator sim;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            sim = Fixtures.simulator(vehicles, 0);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ScoreDirectory {
+        @Param({"100", "10000"})
+        int scoreFiles;
+
+        final ScoreService scoreService = new ScoreService();
+        Path directory;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("score-bench");
+            ScoreCodec codec = new ScoreCodec();
+            for (int i = 0; i < scoreFiles; i++) {
+                codec.write(ScoreRecord.builder()
+                        .playerName("Gracz " + i)
+                        .finalScore((i * 7919L) % 100000)
+                        .timestamp("2025-01-01T12:00:" + i)
+                        .totalCash(10000 + i)
+                        .reputation(i % 100)
+                        .vehiclesOwned(i % 50)
+                        .turnsReached(i % 500)
+                        .build(), directory.resolve("score-" + i + ".score"));
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    @Benchmark
+    public double calculateFinalScore(Game game) {
+        return game.scoreService.calculateFinalScore(game.sim);
+    }
+
+    /** Full scan of the directory. */
+    @Benchmark
+    public List<ScoreRecord> loadScores(ScoreDirectory scores) {
+        return scores.scoreService.loadScores(scores.directory.toFile());
+    }
+
+    /** Served from the binary leaderboard once it has been imported on the first call. */
+    @Benchmark
+    public List<ScoreRecord> loadTopScores(ScoreDirectory scores) {
+        return scores.scoreService.loadTopScores(scores.directory.toFile(), 10);
+    }
+}
@@ -0,0 +1,55 @@
+package com.transport.bench;
+
+import com.transport.sim.SimRandom;
+import com.transport.sim.Simulator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Cost of one turn at different company sizes, with {@code jobs} crews out on
+ * a job. The simulator is rebuilt for every iteration, and before every turn
+ * the jobs that finished are replaced by new ones outside the measurement,
+ * so each turn runs with the same number of jobs in transit.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SimulatorBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    int vehicles;
+
+    @Param({"0", "1000"})
+    int jobs;
+
+    private Simulator sim;
+    private SimRandom rng;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        sim = Fixtures.simulator(vehicles, jobs);
+        rng = new SimRandom(Fixtures.SEED);
+    }
+
+    // Walks past the busy crews once, cheap next to the turn itself
+    @Setup(Level.Invocation)
+    public void topUpJobs() {
+        Fixtures.topUpJobs(sim, jobs, rng);
+    }
+
+    /** Turn plus rendering of the log, as the UI does it. */
+    @Benchmark
+    public String nextTurn() {
+        return sim.nextTurn();
+    }
+
+    /** Turn without rendering, as headless runs do it. */
+    @Benchmark
+    public int runTurn() {
+        sim.runTurn();
+        return sim.getEvents().getSize();
+    }
+}
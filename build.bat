@@ -35,11 +35,12 @@ goto :eof
 echo Compiling Java sources...
 if not exist "%BUILD_DIR%" mkdir "%BUILD_DIR%"
 
-REM Find all Java files (Windows version)
+REM Find all Java files (Windows version), except the JMH benchmarks in bench\
 setlocal enabledelayedexpansion
 set SOURCES=
 for /r "%SRC_DIR%" %%f in (*.java) do (
-    set SOURCES=!SOURCES! "%%f"
+    set FILE=%%f
+    if "!FILE:%CD%\bench\=!"=="!FILE!" set SOURCES=!SOURCES! "%%f"
 )
 
 REM Compile with Lombok annotation processing
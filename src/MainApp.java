@@ -28,7 +28,7 @@ public class MainApp extends Application {
         StartScreen startScreen = new StartScreen();
         
         // callback: when user clicks "Start Game", run startGame() with their settings
-        Region content = startScreen.createContent(this::startGame);
+        Region content = startScreen.createContent(this::startGame, this::showGame);
         
         Scene scene = new Scene(content, 900, 700);
         // Load CSS if available (optional)
@@ -44,8 +44,13 @@ public class MainApp extends Application {
      * Initializes the Simulator and switches to the Main Game UI.
      */
     private void startGame(GameSettings settings) {
-        Simulator sim = new Simulator(settings);
-        
+        showGame(new Simulator(settings));
+    }
+
+    /**
+     * Switches to the Main Game UI for a new or loaded game.
+     */
+    private void showGame(Simulator sim) {
         // FIX: Passed 'this::showStartScreen' as the second argument.
         // This is the Runnable that the BankruptcyScreen will execute to restart the game.
         BorderPane gameRoot = UIFactory.createMainUI(sim, this::showStartScreen);
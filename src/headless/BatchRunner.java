@@ -0,0 +1,116 @@
+package com.transport.headless;
+
+import com.transport.score.ScoreService;
+import com.transport.sim.GameSettings;
+import com.transport.sim.GameSettings.Difficulty;
+import com.transport.sim.Simulator;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs many full games without any UI. Each game gets its own Simulator,
+ * games are split across a work-stealing pool so all cores stay busy.
+ */
+public class BatchRunner {
+
+    private final ForkJoinPool pool;
+    private final ScoreService scoreService = new ScoreService();
+
+    public BatchRunner() { this(Runtime.getRuntime().availableProcessors()); }
+
+    public BatchRunner(int parallelism) { this.pool = new ForkJoinPool(parallelism); }
+
+    public List<GameSummary> run(GameSettings settings, int games, int turns) {
+        return run(settings, games, turns, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Plays {@code games} independent games of at most {@code turns} turns each.
+     * Game {@code i} is seeded with {@code baseSeed + i}, so a batch is reproducible.
+     * @return one summary per game, ordered by game index.
+     */
+    public List<GameSummary> run(GameSettings settings, int games, int turns, long baseSeed) {
+        GameSummary[] results = new GameSummary[games];
+        pool.invoke(new GameRange(settings, turns, baseSeed, results, 0, games));
+        return Arrays.asList(results);
+    }
+
+    public void shutdown() { pool.shutdown(); }
+
+    GameSummary playGame(GameSettings settings, int gameIndex, int turns, long seed) {
+        Simulator sim = new Simulator(settings, seed);
+        sim.getEvents().setEnabled(false); // nobody reads the log here
+        int bankruptcyTurn = -1;
+        while (sim.getTurn() < turns) {
+            sim.runTurn();
+            if (sim.isGameOver()) {
+                bankruptcyTurn = sim.getTurn();
+                break;
+            }
+        }
+        return new GameSummary(gameIndex, seed, sim.getTurn(),
+                sim.getCompany().getCash(),
+                sim.getCompany().getReputation(),
+                sim.getCompany().getVehicleCount(),
+                bankruptcyTurn,
+                scoreService.calculateFinalScore(sim));
+    }
+
+    // Splits the game range in halves until single games remain, idle workers steal the rest.
+    @SuppressWarnings("serial") // never serialized, holds the batch's result array
+    private class GameRange extends RecursiveAction {
+        private final GameSettings settings;
+        private final int turns;
+        private final long baseSeed;
+        private final GameSummary[] results;
+        private final int from, to;
+
+        GameRange(GameSettings settings, int turns, long baseSeed, GameSummary[] results, int from, int to) {
+            this.settings = settings; this.turns = turns; this.baseSeed = baseSeed; this.results = results;
+            this.from = from; this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (from < to) results[from] = playGame(settings, from, turns, baseSeed + from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new GameRange(settings, turns, baseSeed, results, from, mid),
+                      new GameRange(settings, turns, baseSeed, results, mid, to));
+        }
+    }
+
+    /**
+     * Usage: BatchRunner [games] [turns] [difficulty] [threads] [seed]
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int turns = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        Difficulty difficulty = args.length > 2 ? Difficulty.valueOf(args[2].toUpperCase()) : Difficulty.ENTREPRENEUR;
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : ThreadLocalRandom.current().nextLong();
+
+        BatchRunner runner = new BatchRunner(threads);
+        long start = System.nanoTime();
+        List<GameSummary> results = runner.run(new GameSettings("Batch", difficulty), games, turns, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        runner.shutdown();
+
+        System.out.println("game;seed;turns;cash;reputation;vehicles;bankruptcyTurn;score");
+        for (GameSummary s : results) {
+            System.out.println(String.format(Locale.ROOT, "%d;%d;%d;%.2f;%.2f;%d;%d;%.2f",
+                    s.getGameIndex(), s.getSeed(), s.getTurnsPlayed(), s.getFinalCash(), s.getReputation(),
+                    s.getVehiclesOwned(), s.getBankruptcyTurn(), s.getFinalScore()));
+        }
+
+        long bankrupt = results.stream().filter(GameSummary::isBankrupt).count();
+        double avgScore = results.stream().mapToDouble(GameSummary::getFinalScore).average().orElse(0);
+        System.err.println(String.format(Locale.ROOT,
+                "%d games x %d turns on %d threads in %.2fs (%.0f games/s), bankrupt: %d, avg score: %.0f",
+                games, turns, threads, seconds, games / seconds, bankrupt, avgScore));
+    }
+}
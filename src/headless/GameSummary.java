@@ -0,0 +1,19 @@
+package com.transport.headless;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GameSummary {
+    private final int gameIndex;
+    private final long seed;
+    private final int turnsPlayed;
+    private final double finalCash;
+    private final double reputation;
+    private final int vehiclesOwned;
+    private final int bankruptcyTurn; // -1 if the company survived
+    private final double finalScore;
+
+    public boolean isBankrupt() { return bankruptcyTurn >= 0; }
+}
@@ -0,0 +1,76 @@
+package com.transport.headless;
+
+import com.transport.score.ScoreService;
+import com.transport.sim.GameSettings;
+import com.transport.sim.GameSettings.Difficulty;
+import com.transport.sim.Journal;
+import com.transport.sim.Replay;
+import com.transport.sim.Simulator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Replays recorded game journals without any UI, one per core, and prints how
+ * each game ends. With a difficulty given, the games are re-scored under that
+ * difficulty's balance instead of the recorded one.
+ */
+public class ReplayRunner {
+
+    private final ScoreService scoreService = new ScoreService();
+
+    public GameSummary replay(int index, Journal journal, Difficulty difficulty) {
+        GameSettings settings = difficulty == null ? journal.getSettings()
+                : new GameSettings(journal.getSettings().getCompanyName(), difficulty);
+        Simulator sim = Replay.run(journal, settings, Integer.MAX_VALUE);
+        return new GameSummary(index, journal.getSeed(), sim.getTurn(),
+                sim.getCompany().getCash(),
+                sim.getCompany().getReputation(),
+                sim.getCompany().getVehicleCount(),
+                sim.isGameOver() ? sim.getTurn() : -1,
+                scoreService.calculateFinalScore(sim));
+    }
+
+    /**
+     * Usage: ReplayRunner [difficulty] journal...
+     */
+    public static void main(String[] args) {
+        int first = 0;
+        Difficulty difficulty = null;
+        if (args.length > 0 && Arrays.stream(Difficulty.values()).anyMatch(d -> d.name().equalsIgnoreCase(args[0]))) {
+            difficulty = Difficulty.valueOf(args[0].toUpperCase());
+            first = 1;
+        }
+        List<Path> files = Arrays.stream(args, first, args.length).map(Paths::get).collect(Collectors.toList());
+        if (files.isEmpty()) files = List.of(Paths.get(Journal.LAST_GAME_FILE));
+
+        ReplayRunner runner = new ReplayRunner();
+        Difficulty override = difficulty;
+        List<Path> journals = files;
+        long start = System.nanoTime();
+        List<GameSummary> results = IntStream.range(0, journals.size()).parallel()
+                .mapToObj(i -> {
+                    try {
+                        return runner.replay(i, Journal.read(journals.get(i)), override);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(journals.get(i).toString(), e);
+                    }
+                })
+                .collect(Collectors.toList());
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("journal;seed;turns;cash;reputation;vehicles;bankruptcyTurn;score");
+        for (GameSummary s : results) {
+            System.out.println(String.format(Locale.ROOT, "%s;%d;%d;%.2f;%.2f;%d;%d;%.2f",
+                    journals.get(s.getGameIndex()), s.getSeed(), s.getTurnsPlayed(), s.getFinalCash(), s.getReputation(),
+                    s.getVehiclesOwned(), s.getBankruptcyTurn(), s.getFinalScore()));
+        }
+        int turns = results.stream().mapToInt(GameSummary::getTurnsPlayed).sum();
+        System.err.println(String.format(Locale.ROOT, "%d journals, %d turns replayed in %.2fs (%.0f turns/s)",
+                results.size(), turns, seconds, turns / seconds));
+    }
+}
@@ -0,0 +1,181 @@
+package com.transport.score;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash table on disk from 64-bit hashes to leaderboard record
+ * numbers. 32-byte header (magic, records covered, capacity, entries) followed
+ * by 16-byte slots (hash, record number + 1, 0 for a free slot), kept at most
+ * half full. A lookup reads a few slots by position, so it costs the same
+ * whether the board holds ten scores or ten million. Equal hashes may take
+ * several slots; callers check the record a slot points at where it matters.
+ * Only used by {@link Leaderboard}, under its lock.
+ */
+final class KeyTable implements Closeable {
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final long MIN_CAPACITY = 1024; // must be a power of two
+
+    private final Path file;
+    private final int magic;
+    private final boolean writable;
+    private final ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private FileChannel ch; // null for a missing table opened read-only
+    private long covered, capacity, entries;
+
+    /** Opens the table in {@code file}; a writable one is created, or started over if unreadable. */
+    KeyTable(Path file, int magic, boolean writable) throws IOException {
+        this.file = file;
+        this.magic = magic;
+        this.writable = writable;
+        open();
+    }
+
+    private void open() throws IOException {
+        if (!writable && !Files.exists(file)) return;
+        ch = writable
+                ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (ch.read(header, 0) == HEADER_SIZE && header.getInt(0) == magic) {
+            covered = header.getLong(8);
+            capacity = header.getLong(16);
+            entries = header.getLong(24);
+            if (Long.bitCount(capacity) == 1 && ch.size() >= HEADER_SIZE + capacity * SLOT_SIZE) return;
+        }
+        if (writable) clear();
+        else capacity = 0;
+    }
+
+    /** Number of leaderboard records already in the table, as last set by {@link #setCovered}. */
+    long covered() { return covered; }
+
+    void setCovered(long covered) { this.covered = covered; }
+
+    /** Drops every entry. */
+    void clear() throws IOException {
+        ch.truncate(0);
+        capacity = MIN_CAPACITY;
+        entries = 0;
+        covered = 0;
+        ch.write(ByteBuffer.allocate(1), HEADER_SIZE + capacity * SLOT_SIZE - 1); // sparse, reads as free slots
+        writeHeader();
+    }
+
+    /** Record numbers stored under {@code hash}, usually none or one. */
+    long[] get(long hash) throws IOException {
+        long[] found = new long[0];
+        if (capacity == 0) return found;
+        for (long i = start(hash); ; i = (i + 1) & (capacity - 1)) {
+            readSlot(i);
+            long value = slot.getLong(8);
+            if (value == 0) return found;
+            if (slot.getLong(0) == hash) {
+                found = Arrays.copyOf(found, found.length + 1);
+                found[found.length - 1] = value - 1;
+            }
+        }
+    }
+
+    /** Adds an entry, keeping any others under the same hash. */
+    void add(long hash, long record) throws IOException {
+        if (2 * (entries + 1) > capacity) grow();
+        long i = start(hash);
+        while (readSlot(i).getLong(8) != 0) i = (i + 1) & (capacity - 1);
+        writeSlot(i, hash, record);
+        entries++;
+    }
+
+    /** Points the entry under {@code hash} at {@code record}, adding it if there is none. */
+    void put(long hash, long record) throws IOException {
+        if (2 * (entries + 1) > capacity) grow();
+        long i = start(hash);
+        while (readSlot(i).getLong(8) != 0) {
+            if (slot.getLong(0) == hash) {
+                writeSlot(i, hash, record);
+                return;
+            }
+            i = (i + 1) & (capacity - 1);
+        }
+        writeSlot(i, hash, record);
+        entries++;
+    }
+
+    // Copies the entries into a table twice the size, written next to this one and moved over it
+    private void grow() throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        try (KeyTable bigger = new KeyTable(tmp, magic, true)) {
+            bigger.capacity = capacity * 2;
+            bigger.ch.write(ByteBuffer.allocate(1), HEADER_SIZE + bigger.capacity * SLOT_SIZE - 1);
+            long chunk = (Integer.MAX_VALUE / SLOT_SIZE) * (long) SLOT_SIZE;
+            long end = HEADER_SIZE + capacity * SLOT_SIZE;
+            for (long start = HEADER_SIZE; start < end; start += chunk) {
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunk, end - start));
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                for (int p = 0; p < map.limit(); p += SLOT_SIZE) {
+                    long value = map.getLong(p + 8);
+                    if (value != 0) bigger.add(map.getLong(p), value - 1);
+                }
+            }
+            bigger.covered = covered;
+        }
+        ch.close();
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        open();
+    }
+
+    private long start(long hash) {
+        return (hash * 0x9E3779B97F4A7C15L) >>> (64 - Long.numberOfTrailingZeros(capacity));
+    }
+
+    private ByteBuffer readSlot(long i) throws IOException {
+        slot.clear();
+        long position = HEADER_SIZE + i * SLOT_SIZE;
+        while (slot.hasRemaining()) {
+            if (ch.read(slot, position + slot.position()) < 0) throw new IOException("Truncated key table: " + file);
+        }
+        return slot;
+    }
+
+    private void writeSlot(long i, long hash, long record) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SLOT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putLong(hash).putLong(record + 1).flip();
+        long position = HEADER_SIZE + i * SLOT_SIZE;
+        while (buf.hasRemaining()) ch.write(buf, position + buf.position());
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(magic).putInt(0).putLong(covered).putLong(capacity).putLong(entries).flip();
+        while (buf.hasRemaining()) ch.write(buf, buf.position());
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (ch == null) return;
+        if (writable) writeHeader();
+        ch.close();
+    }
+
+    /** 64-bit FNV-1a over the UTF-16 chars of {@code s}, never 0. */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h == 0 ? 1 : h;
+    }
+}
@@ -0,0 +1,447 @@
+package com.transport.score;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Append-only binary leaderboard stored next to the .score files.
+ *
+ * leaderboard.dat: 16-byte header (magic, version, committed record count)
+ * followed by fixed 128-byte records. leaderboard.idx: the best INDEX_SIZE
+ * (score, record number) pairs, rewritten atomically on every append. Reading
+ * the top N maps the small index and fetches N records by position, so it
+ * costs the same whether the board holds ten scores or ten million.
+ * leaderboard.del: the records whose .score file was deleted, same 128-byte
+ * layout without a header, rewritten whole on every change.
+ * leaderboard.keys and leaderboard.files: {@link KeyTable}s from the hash of
+ * each record's key, and of the name of the .score file it was last read
+ * from, to its record number. The board never stores a key twice, and both
+ * questions cost a few reads however many scores it holds.
+ */
+public class Leaderboard {
+    public static final String DATA_FILE = "leaderboard.dat";
+    public static final String INDEX_FILE = "leaderboard.idx";
+    public static final String DELETED_FILE = "leaderboard.del";
+    public static final String KEYS_FILE = "leaderboard.keys";
+    public static final String FILES_FILE = "leaderboard.files";
+    public static final int INDEX_SIZE = 100;
+
+    private static final int DATA_MAGIC = 0x544d4c42;  // "TMLB"
+    private static final int INDEX_MAGIC = 0x544d4c49; // "TMLI"
+    private static final int KEYS_MAGIC = 0x544d4c4b;  // "TMLK"
+    private static final int FILES_MAGIC = 0x544d4c46; // "TMLF"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 128;
+    private static final int NAME_OFFSET = 32, NAME_BYTES = 63;
+    private static final int TIMESTAMP_OFFSET = 96, TIMESTAMP_BYTES = 31;
+    private static final int INDEX_HEADER = 12, INDEX_ENTRY = 16;
+
+    // FileLock is per process, a second channel of the same JVM asking for it would fail
+    private static final Object PROCESS_LOCK = new Object();
+
+    private final Path dataFile;
+    private final Path indexFile;
+    private final Path deletedFile;
+    private final Path keysFile;
+    private final Path filesFile;
+
+    public Leaderboard(Path directory) {
+        this.dataFile = directory.resolve(DATA_FILE);
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.deletedFile = directory.resolve(DELETED_FILE);
+        this.keysFile = directory.resolve(KEYS_FILE);
+        this.filesFile = directory.resolve(FILES_FILE);
+    }
+
+    public boolean exists() { return Files.exists(dataFile); }
+
+    /** Whether the board knows which .score files its records came from; boards older than that don't. */
+    public boolean knowsFiles() { return Files.exists(filesFile); }
+
+    public void append(ScoreRecord record) throws IOException { appendAll(List.of(record)); }
+
+    /** Appends the records the board does not hold yet and updates the indexes. */
+    public void appendAll(Collection<ScoreRecord> records) throws IOException {
+        addAll(new ArrayList<>(records), null);
+    }
+
+    /**
+     * Appends a record read from {@code file} unless the board already holds it,
+     * and remembers the file as its source either way.
+     * @return whether it was appended
+     */
+    public boolean add(ScoreRecord record, Path file) throws IOException {
+        return addAll(List.of(record), Collections.singletonList(file.getFileName().toString())) > 0;
+    }
+
+    /** {@link #add} for every file of a directory, e.g. the first import. */
+    public void addFiles(Map<Path, ScoreRecord> records) throws IOException {
+        List<String> names = new ArrayList<>(records.size());
+        for (Path file : records.keySet()) names.add(file.getFileName().toString());
+        addAll(new ArrayList<>(records.values()), names);
+    }
+
+    /** The record last added from a file of this name, null if none was. */
+    public ScoreRecord recordFrom(Path file) throws IOException {
+        if (!exists()) return null;
+        return locked(ch -> {
+            long count = readHeader(ch);
+            try (KeyTable files = new KeyTable(filesFile, FILES_MAGIC, false)) {
+                for (long ordinal : files.get(KeyTable.hash(file.getFileName().toString()))) {
+                    if (ordinal < count) return readRecord(ch, ordinal);
+                }
+            }
+            return null;
+        });
+    }
+
+    // Everything that touches the files holds this process's monitor and an exclusive lock on the data file
+    private <T> T locked(LockedAction<T> action) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            try (FileChannel ch = FileChannel.open(dataFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                FileLock lock = ch.lock();
+                try {
+                    return action.run(ch);
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    private interface LockedAction<T> {
+        T run(FileChannel ch) throws IOException;
+    }
+
+    // fileNames.get(i) is the .score file of records.get(i), null or a null list for none
+    private int addAll(List<ScoreRecord> records, List<String> fileNames) throws IOException {
+        return locked(ch -> {
+            try (KeyTable keys = new KeyTable(keysFile, KEYS_MAGIC, true);
+                 KeyTable files = fileNames == null ? null : new KeyTable(filesFile, FILES_MAGIC, true)) {
+                return addLocked(ch, keys, files, records, fileNames);
+            }
+        });
+    }
+
+    private int addLocked(FileChannel ch, KeyTable keys, KeyTable files,
+                          List<ScoreRecord> records, List<String> fileNames) throws IOException {
+        long count = readOrInitHeader(ch);
+        catchUp(ch, keys, count);
+        List<IndexEntry> top = readIndex(ch, count);
+
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, Long> appended = new LinkedHashMap<>();
+        List<long[]> sources = new ArrayList<>(); // (file name hash, record number)
+        long ordinal = count;
+        for (int i = 0; i < records.size(); i++) {
+            ScoreRecord r = records.get(i);
+            String key = key(r);
+            Long stored = appended.get(key);
+            if (stored == null) stored = find(ch, keys, key, count);
+            if (stored < 0) {
+                encode(r, buf);
+                ch.write(buf, HEADER_SIZE + ordinal * RECORD_SIZE);
+                top.add(new IndexEntry(r.getFinalScore(), ordinal));
+                appended.put(key, ordinal);
+                stored = ordinal++;
+            }
+            String name = fileNames == null ? null : fileNames.get(i);
+            if (name != null) sources.add(new long[] {KeyTable.hash(name), stored});
+        }
+        if (ordinal > count) {
+            ch.force(false);
+            writeHeader(ch, ordinal); // records become visible only once they are on disk
+            ch.force(false);
+        }
+        // the tables only point at committed records
+        for (Map.Entry<String, Long> e : appended.entrySet()) keys.add(KeyTable.hash(e.getKey()), e.getValue());
+        keys.setCovered(ordinal);
+        for (long[] source : sources) files.put(source[0], source[1]);
+
+        if (ordinal > count) {
+            top.sort(IndexEntry.ORDER);
+            writeIndex(top.subList(0, Math.min(INDEX_SIZE, top.size())), ordinal);
+        }
+        return (int) (ordinal - count);
+    }
+
+    // Record number holding key, -1 if none
+    private long find(FileChannel ch, KeyTable keys, String key, long count) throws IOException {
+        for (long ordinal : keys.get(KeyTable.hash(key))) {
+            if (ordinal < count && key(readRecord(ch, ordinal)).equals(key)) return ordinal;
+        }
+        return -1;
+    }
+
+    // Adds the records appended since the key table was last written, e.g. by an older version
+    private void catchUp(FileChannel ch, KeyTable keys, long count) throws IOException {
+        if (keys.covered() > count) keys.clear(); // the data file was replaced
+        long end = HEADER_SIZE + count * RECORD_SIZE;
+        long chunk = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+        for (long start = HEADER_SIZE + keys.covered() * RECORD_SIZE; start < end; start += chunk) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, start, Math.min(chunk, end - start));
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            long first = (start - HEADER_SIZE) / RECORD_SIZE;
+            for (int off = 0; off < map.limit(); off += RECORD_SIZE) {
+                map.position(off);
+                keys.add(KeyTable.hash(key(decode(map.slice().order(ByteOrder.LITTLE_ENDIAN)))), first + off / RECORD_SIZE);
+            }
+        }
+        keys.setCovered(count);
+    }
+
+    private ScoreRecord readRecord(FileChannel ch, long ordinal) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, buf, HEADER_SIZE + ordinal * RECORD_SIZE);
+        return decode(buf);
+    }
+
+    /**
+     * Identity of a score: player, timestamp and score to the cent, as the board
+     * stores them (names and timestamps cut to their field), so a record read back
+     * from the board, from its .score file or handed over in memory all match.
+     */
+    static String key(ScoreRecord r) {
+        return new String(stored(r.getPlayerName(), NAME_BYTES), StandardCharsets.UTF_8) + '\u0000'
+                + new String(stored(r.getTimestamp(), TIMESTAMP_BYTES), StandardCharsets.UTF_8) + '\u0000'
+                + Math.round(r.getFinalScore() * 100);
+    }
+
+    /** Returns the best {@code n} scores (at most INDEX_SIZE), best first. */
+    public List<ScoreRecord> top(int n) throws IOException {
+        if (!exists()) return new ArrayList<>();
+        try (FileChannel ch = FileChannel.open(dataFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long count = readHeader(ch);
+            List<IndexEntry> entries = indexUpToDate(count) ? readIndex(ch, count) : repairIndex(ch);
+            List<ScoreRecord> out = new ArrayList<>(Math.min(n, entries.size()));
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            for (int i = 0; i < entries.size() && i < n; i++) {
+                buf.clear();
+                readFully(ch, buf, HEADER_SIZE + entries.get(i).ordinal * RECORD_SIZE);
+                out.add(decode(buf));
+            }
+            return out;
+        }
+    }
+
+    /** Records marked deleted, see {@link #setDeleted}. */
+    public List<ScoreRecord> deleted() throws IOException {
+        List<ScoreRecord> out = new ArrayList<>();
+        if (!Files.exists(deletedFile)) return out;
+        ByteBuffer all = ByteBuffer.wrap(Files.readAllBytes(deletedFile)).order(ByteOrder.LITTLE_ENDIAN);
+        for (int p = 0; p + RECORD_SIZE <= all.capacity(); p += RECORD_SIZE) {
+            all.position(p);
+            out.add(decode(all.slice().order(ByteOrder.LITTLE_ENDIAN)));
+        }
+        return out;
+    }
+
+    /** Replaces the set of records hidden because their .score file was deleted. */
+    public void setDeleted(Collection<ScoreRecord> records) throws IOException {
+        ByteBuffer all = ByteBuffer.allocate(records.size() * RECORD_SIZE);
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        for (ScoreRecord r : records) {
+            encode(r, buf);
+            all.put(buf);
+        }
+        all.flip();
+        Path tmp = deletedFile.resolveSibling(DELETED_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (all.hasRemaining()) ch.write(all);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, deletedFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, deletedFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    public long size() throws IOException {
+        if (!exists()) return 0;
+        try (FileChannel ch = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            return readHeader(ch);
+        }
+    }
+
+    // ---------- index ----------
+
+    // Rewrites a missing or stale index under the lock appendAll holds, so the two never interleave
+    private List<IndexEntry> repairIndex(FileChannel ch) throws IOException {
+        synchronized (PROCESS_LOCK) {
+            FileLock lock = ch.lock();
+            try {
+                long count = readHeader(ch);
+                List<IndexEntry> entries = readIndex(ch, count);
+                if (!indexUpToDate(count)) writeIndex(entries, count);
+                return entries;
+            } finally {
+                lock.release();
+            }
+        }
+    }
+
+    private boolean indexUpToDate(long count) throws IOException {
+        if (!Files.exists(indexFile)) return false;
+        try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocate(INDEX_HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            if (ch.read(buf, 0) < INDEX_HEADER) return false;
+            return buf.getInt(0) == INDEX_MAGIC && buf.getLong(4) == count;
+        }
+    }
+
+    private List<IndexEntry> readIndex(FileChannel data, long count) throws IOException {
+        if (Files.exists(indexFile)) {
+            try (FileChannel ch = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+                MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                map.order(ByteOrder.LITTLE_ENDIAN);
+                if (map.remaining() >= INDEX_HEADER && map.getInt(0) == INDEX_MAGIC && map.getLong(4) == count) {
+                    int n = (map.remaining() - INDEX_HEADER) / INDEX_ENTRY;
+                    List<IndexEntry> entries = new ArrayList<>(n + 1);
+                    for (int i = 0; i < n; i++) {
+                        int p = INDEX_HEADER + i * INDEX_ENTRY;
+                        entries.add(new IndexEntry(map.getDouble(p), map.getLong(p + 8)));
+                    }
+                    return entries;
+                }
+            }
+        }
+        return rebuildIndex(data, count); // missing or stale index
+    }
+
+    // One sequential pass over the mapped data file with a bounded min-heap
+    private List<IndexEntry> rebuildIndex(FileChannel data, long count) throws IOException {
+        PriorityQueue<IndexEntry> heap = new PriorityQueue<>(IndexEntry.ORDER.reversed());
+        long end = HEADER_SIZE + count * RECORD_SIZE;
+        long chunk = (Integer.MAX_VALUE / RECORD_SIZE) * (long) RECORD_SIZE;
+        for (long start = HEADER_SIZE; start < end; start += chunk) {
+            long len = Math.min(chunk, end - start);
+            MappedByteBuffer map = data.map(FileChannel.MapMode.READ_ONLY, start, len);
+            map.order(ByteOrder.LITTLE_ENDIAN);
+            long first = (start - HEADER_SIZE) / RECORD_SIZE;
+            for (int off = 0; off < len; off += RECORD_SIZE) {
+                heap.add(new IndexEntry(map.getDouble(off), first + off / RECORD_SIZE));
+                if (heap.size() > INDEX_SIZE) heap.poll();
+            }
+        }
+        List<IndexEntry> entries = new ArrayList<>(heap);
+        entries.sort(IndexEntry.ORDER);
+        return entries;
+    }
+
+    private void writeIndex(List<IndexEntry> entries, long count) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(INDEX_HEADER + entries.size() * INDEX_ENTRY).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(INDEX_MAGIC).putLong(count);
+        for (IndexEntry e : entries) buf.putDouble(e.score).putLong(e.ordinal);
+        buf.flip();
+        Path tmp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        }
+        try {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // ---------- data file ----------
+
+    private long readOrInitHeader(FileChannel ch) throws IOException {
+        if (ch.size() < HEADER_SIZE) {
+            writeHeader(ch, 0);
+            return 0;
+        }
+        return readHeader(ch);
+    }
+
+    private long readHeader(FileChannel ch) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, buf, 0);
+        if (buf.getInt(0) != DATA_MAGIC) throw new IOException("Not a leaderboard file: " + dataFile);
+        if (buf.getInt(4) != VERSION) throw new IOException("Unsupported leaderboard version " + buf.getInt(4));
+        return buf.getLong(8);
+    }
+
+    private void writeHeader(FileChannel ch, long count) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(DATA_MAGIC).putInt(VERSION).putLong(count).flip();
+        while (buf.hasRemaining()) ch.write(buf, buf.position());
+    }
+
+    private static void readFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, position + buf.position());
+            if (n < 0) throw new IOException("Unexpected end of leaderboard file");
+        }
+        buf.flip();
+    }
+
+    private static void encode(ScoreRecord r, ByteBuffer buf) {
+        buf.clear();
+        buf.putDouble(0, r.getFinalScore());
+        buf.putDouble(8, r.getTotalCash());
+        buf.putDouble(16, r.getReputation());
+        buf.putInt(24, r.getVehiclesOwned());
+        buf.putInt(28, r.getTurnsReached());
+        putString(buf, NAME_OFFSET, NAME_BYTES, r.getPlayerName());
+        putString(buf, TIMESTAMP_OFFSET, TIMESTAMP_BYTES, r.getTimestamp());
+        buf.limit(RECORD_SIZE);
+    }
+
+    private static ScoreRecord decode(ByteBuffer buf) {
+        return ScoreRecord.builder()
+                .finalScore(buf.getDouble(0))
+                .totalCash(buf.getDouble(8))
+                .reputation(buf.getDouble(16))
+                .vehiclesOwned(buf.getInt(24))
+                .turnsReached(buf.getInt(28))
+                .playerName(getString(buf, NAME_OFFSET))
+                .timestamp(getString(buf, TIMESTAMP_OFFSET))
+                .build();
+    }
+
+    // length byte + UTF-8 bytes, cut on a character boundary if too long
+    private static void putString(ByteBuffer buf, int offset, int maxBytes, String s) {
+        byte[] bytes = stored(s, maxBytes);
+        buf.put(offset, (byte) bytes.length);
+        for (int i = 0; i < bytes.length; i++) buf.put(offset + 1 + i, bytes[i]);
+        for (int i = bytes.length; i < maxBytes; i++) buf.put(offset + 1 + i, (byte) 0);
+    }
+
+    private static byte[] stored(String s, int maxBytes) {
+        byte[] bytes = (s == null ? "" : s).getBytes(StandardCharsets.UTF_8);
+        int len = Math.min(bytes.length, maxBytes);
+        while (len > 0 && len < bytes.length && (bytes[len] & 0xC0) == 0x80) len--;
+        return len == bytes.length ? bytes : Arrays.copyOf(bytes, len);
+    }
+
+    private static String getString(ByteBuffer buf, int offset) {
+        int len = buf.get(offset) & 0xFF;
+        byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) bytes[i] = buf.get(offset + 1 + i);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static final class IndexEntry {
+        static final Comparator<IndexEntry> ORDER = Comparator.<IndexEntry>comparingDouble(e -> -e.score)
+                .thenComparingLong(e -> e.ordinal);
+
+        final double score;
+        final long ordinal;
+
+        IndexEntry(double score, long ordinal) { this.score = score; this.ordinal = ordinal; }
+    }
+}
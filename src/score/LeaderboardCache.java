@@ -0,0 +1,268 @@
+package com.transport.score;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Long-lived in-memory top-K of the scores in a directory.
+ *
+ * It is seeded once, off the caller's thread, from the binary Leaderboard and
+ * then kept current by a WatchService: new or rewritten .score files are parsed
+ * and offered to a bounded min-heap, and added to the leaderboard, which skips
+ * keys it already holds, so saving, touching or re-importing a file never
+ * stores it twice. A deleted file is looked up in the leaderboard's file table,
+ * its record drops out and is remembered in the leaderboard's deleted list
+ * across restarts, and the heap is refilled from the leaderboard. Memory stays
+ * bounded by the top-K and the deleted records. Readers get an immutable
+ * sorted snapshot, so rendering the ranking never touches the disk.
+ */
+public class LeaderboardCache implements Closeable {
+    public static final int DEFAULT_CAPACITY = 10;
+
+    private static LeaderboardCache shared;
+
+    private final Path directory;
+    private final int capacity;
+    private final ScoreService scoreService = new ScoreService();
+    private final ScoreCodec codec = new ScoreCodec();
+    private final Leaderboard board;
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>(Comparator.comparingDouble(e -> e.record.getFinalScore()));
+    private final Map<String, Entry> byKey = new HashMap<>();
+    private final Map<Path, Entry> byPath = new HashMap<>();
+    private final Map<String, ScoreRecord> deleted = new LinkedHashMap<>();
+    private final Object deletedFileLock = new Object();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile List<ScoreRecord> snapshot = List.of();
+    private volatile boolean loaded;
+    private WatchService watcher;
+    private Thread thread;
+
+    public LeaderboardCache(Path directory, int capacity) {
+        this.directory = directory;
+        this.capacity = capacity;
+        this.board = new Leaderboard(directory);
+    }
+
+    /** Cache of the working directory, started on first use. */
+    public static synchronized LeaderboardCache shared() {
+        if (shared == null) {
+            shared = new LeaderboardCache(Paths.get("."), DEFAULT_CAPACITY);
+            shared.start();
+        }
+        return shared;
+    }
+
+    /** Loads the initial top-K and starts watching, both on a background daemon thread. */
+    public synchronized void start() {
+        if (thread != null) return;
+        thread = new Thread(this::run, "leaderboard-watch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Best scores, best first. Empty until the initial load finishes. */
+    public List<ScoreRecord> top() { return snapshot; }
+
+    public boolean isLoaded() { return loaded; }
+
+    /** Listeners run on the watcher thread after every change of the snapshot. */
+    public void addListener(Runnable r) { listeners.add(r); }
+    public void removeListener(Runnable r) { listeners.remove(r); }
+
+    /**
+     * Records a score this process saved to {@code file} in the leaderboard and
+     * makes it visible immediately, wherever the file went.
+     */
+    public void submit(ScoreRecord record, Path file) throws IOException {
+        boolean watched = directory.toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize().getParent());
+        if (watched) board.add(record, file);
+        else board.append(record);
+        if (offer(record, watched ? directory.resolve(file.getFileName()) : null)) publish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (thread != null) thread.interrupt();
+        if (watcher != null) watcher.close();
+    }
+
+    private void run() {
+        try {
+            // Register first so nothing written during the initial load is missed;
+            // events for files the load imported find their keys already in the board
+            watcher = directory.getFileSystem().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            reload();
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watcher.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        reload();
+                        continue;
+                    }
+                    Path file = directory.resolve((Path) event.context());
+                    if (!file.getFileName().toString().endsWith(".score")) continue;
+                    if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) changed |= fileDeleted(file);
+                    else changed |= fileWritten(file);
+                }
+                if (changed) publish();
+                if (!key.reset()) break;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // no watching possible (e.g. unsupported file system), serve a one-off snapshot
+            if (!loaded) reload();
+        }
+    }
+
+    private void reload() {
+        List<ScoreRecord> seed = scoreService.loadTopScores(directory.toFile(), Leaderboard.INDEX_SIZE);
+        List<ScoreRecord> hidden = List.of();
+        try {
+            hidden = board.deleted();
+        } catch (IOException ignored) {}
+        synchronized (this) {
+            for (ScoreRecord r : hidden) deleted.put(key(r), r);
+            heap.clear();
+            byKey.clear();
+            byPath.clear();
+            for (ScoreRecord r : seed) offer(r, null);
+        }
+        publish();
+    }
+
+    private boolean fileWritten(Path file) {
+        ScoreRecord r = codec.readQuietly(file); // may be half-written, a later MODIFY brings the rest
+        if (r == null) return false;
+        try {
+            board.add(r, file);
+        } catch (IOException ignored) {}
+        return offer(r, file);
+    }
+
+    private boolean fileDeleted(Path file) {
+        ScoreRecord r;
+        synchronized (this) {
+            Entry e = byPath.remove(file);
+            r = e == null ? null : e.record;
+        }
+        if (r == null) { // not read this session, e.g. imported at startup
+            try {
+                r = board.recordFrom(file);
+            } catch (IOException e) {
+                return false;
+            }
+            if (r == null) return false;
+        }
+        String k = key(r);
+        boolean removed;
+        synchronized (this) {
+            if (deleted.put(k, r) != null) return false;
+            Entry e = byKey.remove(k);
+            removed = e != null;
+            if (removed) {
+                heap.remove(e);
+                if (e.path != null) byPath.remove(e.path);
+            }
+        }
+        saveDeleted();
+        if (removed) refill();
+        return removed;
+    }
+
+    // After a removal: take the next best scores from the persistent board
+    private void refill() {
+        List<ScoreRecord> candidates;
+        try {
+            candidates = board.top(Leaderboard.INDEX_SIZE);
+        } catch (IOException e) {
+            return;
+        }
+        synchronized (this) {
+            for (ScoreRecord r : candidates) {
+                if (heap.size() >= capacity) break;
+                offer(r, null);
+            }
+        }
+    }
+
+    private boolean offer(ScoreRecord r, Path file) {
+        boolean restored;
+        boolean added;
+        synchronized (this) {
+            String k = key(r);
+            if (deleted.containsKey(k) && file == null) return false;
+            restored = deleted.remove(k) != null; // the file is back
+            added = offerLocked(k, r, file);
+        }
+        if (restored) saveDeleted();
+        return added;
+    }
+
+    private void saveDeleted() {
+        synchronized (deletedFileLock) { // one writer at a time, each with the latest set
+            writeDeleted();
+        }
+    }
+
+    private void writeDeleted() {
+        List<ScoreRecord> records;
+        synchronized (this) {
+            records = new ArrayList<>(deleted.values());
+        }
+        try {
+            board.setDeleted(records);
+        } catch (IOException ignored) {}
+    }
+
+    private boolean offerLocked(String k, ScoreRecord r, Path file) {
+        Entry existing = byKey.get(k);
+        if (existing != null) {
+            if (file != null && existing.path == null) {
+                existing.path = file;
+                byPath.put(file, existing);
+            }
+            return false;
+        }
+        if (heap.size() >= capacity && heap.peek().record.getFinalScore() >= r.getFinalScore()) return false;
+        Entry e = new Entry(k, r, file);
+        heap.add(e);
+        byKey.put(k, e);
+        if (file != null) byPath.put(file, e);
+        while (heap.size() > capacity) {
+            Entry out = heap.poll();
+            byKey.remove(out.key);
+            if (out.path != null) byPath.remove(out.path);
+        }
+        return true;
+    }
+
+    private void publish() {
+        List<ScoreRecord> list = new ArrayList<>();
+        synchronized (this) {
+            for (Entry e : heap) list.add(e.record);
+        }
+        list.sort(Comparator.comparingDouble(ScoreRecord::getFinalScore).reversed());
+        snapshot = Collections.unmodifiableList(list);
+        loaded = true;
+        for (Runnable r : listeners) r.run();
+    }
+
+    private static String key(ScoreRecord r) { return Leaderboard.key(r); }
+
+    private static final class Entry {
+        final String key;
+        final ScoreRecord record;
+        Path path; // the .score file it was read from, if seen this session
+
+        Entry(String key, ScoreRecord record, Path path) { this.key = key; this.record = record; this.path = path; }
+    }
+}
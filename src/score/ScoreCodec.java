@@ -0,0 +1,303 @@
+package com.transport.score;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes the small JSON .score files without regexes, Scanner or
+ * Formatter. Files are read through a per-thread reusable ByteBuffer and parsed
+ * in one pass over the bytes; numbers are written with '.' regardless of the
+ * default locale. Files written by the old printf writer on a Polish-locale box
+ * (decimal comma) are still understood.
+ */
+public class ScoreCodec {
+    private static final int MAX_FILE_SIZE = 64 * 1024;
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private static final byte[] PLAYER_NAME = key("playerName");
+    private static final byte[] FINAL_SCORE = key("finalScore");
+    private static final byte[] TIMESTAMP = key("timestamp");
+    private static final byte[] TOTAL_CASH = key("totalCash");
+    private static final byte[] REPUTATION = key("reputation");
+    private static final byte[] VEHICLES_OWNED = key("vehiclesOwned");
+    private static final byte[] TURNS_REACHED = key("turnsReached");
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> ByteBuffer.allocate(1024));
+
+    // ---------- writing ----------
+
+    public void write(ScoreRecord r, Path file) throws IOException {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\n");
+        sb.append("  \"playerName\": "); appendString(sb, r.getPlayerName()); sb.append(",\n");
+        sb.append("  \"finalScore\": "); appendFixed2(sb, r.getFinalScore()); sb.append(",\n");
+        sb.append("  \"timestamp\": "); appendString(sb, r.getTimestamp()); sb.append(",\n");
+        sb.append("  \"totalCash\": "); appendFixed2(sb, r.getTotalCash()); sb.append(",\n");
+        sb.append("  \"reputation\": "); appendFixed2(sb, r.getReputation()); sb.append(",\n");
+        sb.append("  \"vehiclesOwned\": ").append(r.getVehiclesOwned()).append(",\n");
+        sb.append("  \"turnsReached\": ").append(r.getTurnsReached()).append('\n');
+        sb.append("}\n");
+
+        ByteBuffer buf = StandardCharsets.UTF_8.encode(sb.toString());
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+    }
+
+    static void appendFixed2(StringBuilder sb, double v) {
+        if (Double.isNaN(v) || Double.isInfinite(v) || Math.abs(v) >= 1e16) {
+            sb.append(v); // Double.toString is locale-independent too
+            return;
+        }
+        long cents = Math.round(v * 100);
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        sb.append(cents / 100).append('.');
+        long frac = cents % 100;
+        if (frac < 10) sb.append('0');
+        sb.append(frac);
+    }
+
+    private static void appendString(StringBuilder sb, String s) {
+        sb.append('"');
+        if (s != null) {
+            for (int i = 0; i < s.length(); i++) {
+                char c = s.charAt(i);
+                if (c == '"' || c == '\\') sb.append('\\').append(c);
+                else if (c == '\n') sb.append("\\n");
+                else if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                else sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    // ---------- reading ----------
+
+    public ScoreRecord read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size > MAX_FILE_SIZE) throw new IOException("Score file too large: " + file);
+            ByteBuffer buf = BUFFER.get();
+            if (buf.capacity() < size) {
+                buf = ByteBuffer.allocate((int) size);
+                BUFFER.set(buf);
+            }
+            buf.clear().limit((int) size);
+            while (buf.hasRemaining()) {
+                if (ch.read(buf) < 0) break;
+            }
+            buf.flip();
+            return new Parser(buf, file).parse();
+        }
+    }
+
+    /** Parses every .score file of a directory in parallel; unreadable files are skipped. */
+    public List<ScoreRecord> readDirectory(Path directory) {
+        return new ArrayList<>(readFiles(directory).values());
+    }
+
+    /** Like {@link #readDirectory}, keyed by the file each record was read from. */
+    public Map<Path, ScoreRecord> readFiles(Path directory) {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(directory)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".score")).collect(Collectors.toList());
+        } catch (IOException e) {
+            return new LinkedHashMap<>();
+        }
+        List<ScoreRecord> records = files.parallelStream().map(this::readQuietly).collect(Collectors.toList());
+        Map<Path, ScoreRecord> out = new LinkedHashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            if (records.get(i) != null) out.put(files.get(i), records.get(i));
+        }
+        return out;
+    }
+
+    ScoreRecord readQuietly(Path file) {
+        try {
+            return read(file);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static byte[] key(String k) { return k.getBytes(StandardCharsets.US_ASCII); }
+
+    private static final class Parser {
+        private final ByteBuffer buf;
+        private final Path file;
+        private int pos;
+        private final int end;
+
+        Parser(ByteBuffer buf, Path file) {
+            this.buf = buf;
+            this.file = file;
+            this.pos = buf.position();
+            this.end = buf.limit();
+        }
+
+        ScoreRecord parse() throws IOException {
+            ScoreRecord.ScoreRecordBuilder b = ScoreRecord.builder().playerName("").timestamp("");
+            expect('{');
+            skipWs();
+            if (peek() == '}') return b.build();
+            while (true) {
+                skipWs();
+                expect('"');
+                int keyStart = pos;
+                while (pos < end && buf.get(pos) != '"') pos++;
+                int keyEnd = pos;
+                expect('"');
+                skipWs();
+                expect(':');
+                skipWs();
+
+                if (is(keyStart, keyEnd, PLAYER_NAME)) b.playerName(readString());
+                else if (is(keyStart, keyEnd, TIMESTAMP)) b.timestamp(readString());
+                else if (is(keyStart, keyEnd, FINAL_SCORE)) b.finalScore(readNumber());
+                else if (is(keyStart, keyEnd, TOTAL_CASH)) b.totalCash(readNumber());
+                else if (is(keyStart, keyEnd, REPUTATION)) b.reputation(readNumber());
+                else if (is(keyStart, keyEnd, VEHICLES_OWNED)) b.vehiclesOwned((int) readNumber());
+                else if (is(keyStart, keyEnd, TURNS_REACHED)) b.turnsReached((int) readNumber());
+                else skipValue();
+
+                skipWs();
+                int c = next();
+                if (c == '}') return b.build();
+                if (c != ',') throw error("expected ',' or '}'");
+            }
+        }
+
+        private boolean is(int from, int to, byte[] key) {
+            if (to - from != key.length) return false;
+            for (int i = 0; i < key.length; i++) if (buf.get(from + i) != key[i]) return false;
+            return true;
+        }
+
+        private String readString() throws IOException {
+            if (peek() != '"') { // the old regex parser tolerated unquoted values
+                int start = pos;
+                while (pos < end && buf.get(pos) != ',' && buf.get(pos) != '}' && buf.get(pos) != '\n') pos++;
+                return decode(start, pos).trim();
+            }
+            pos++;
+            int start = pos;
+            while (pos < end && buf.get(pos) != '"' && buf.get(pos) != '\\') pos++;
+            if (pos < end && buf.get(pos) == '"') { // common case: no escapes
+                String s = decode(start, pos);
+                pos++;
+                return s;
+            }
+            StringBuilder sb = new StringBuilder(decode(start, pos));
+            while (pos < end) {
+                int c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    int runStart = pos - 1;
+                    while (pos < end && buf.get(pos) != '"' && buf.get(pos) != '\\') pos++;
+                    sb.append(decode(runStart, pos));
+                    continue;
+                }
+                int e = next();
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 'u':
+                        if (pos + 4 > end) throw error("bad escape");
+                        sb.append((char) Integer.parseInt(decode(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append((char) e);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private double readNumber() throws IOException {
+            int start = pos;
+            boolean negative = false;
+            if (peek() == '-') { negative = true; pos++; }
+            long mantissa = 0;
+            int digits = 0, scale = 0;
+            boolean exact = true;
+            while (pos < end && isDigit(buf.get(pos))) {
+                if (digits < 18) mantissa = mantissa * 10 + (buf.get(pos) - '0');
+                else exact = false;
+                if (mantissa != 0) digits++;
+                pos++;
+            }
+            int sep = peek();
+            // '.' or a decimal comma from the old locale-dependent writer
+            if ((sep == '.' || (sep == ',' && pos + 1 < end && isDigit(buf.get(pos + 1))))) {
+                pos++;
+                while (pos < end && isDigit(buf.get(pos))) {
+                    if (digits < 18) {
+                        mantissa = mantissa * 10 + (buf.get(pos) - '0');
+                        scale++;
+                        if (mantissa != 0) digits++;
+                    } else {
+                        exact = false;
+                    }
+                    pos++;
+                }
+            }
+            if (peek() == 'e' || peek() == 'E') {
+                exact = false;
+                pos++;
+                if (peek() == '+' || peek() == '-') pos++;
+                while (pos < end && isDigit(buf.get(pos))) pos++;
+            }
+            if (pos == start || (negative && pos == start + 1)) throw error("expected a number");
+            if (exact && digits <= 15 && scale >= 0 && scale < POW10.length) {
+                double v = mantissa / POW10[scale]; // exactly rounded for <= 15 digits
+                return negative ? -v : v;
+            }
+            return Double.parseDouble(decode(start, pos).replace(',', '.'));
+        }
+
+        private void skipValue() throws IOException {
+            if (peek() == '"') readString();
+            else while (pos < end && buf.get(pos) != ',' && buf.get(pos) != '}') pos++;
+        }
+
+        private String decode(int from, int to) {
+            byte[] bytes = new byte[to - from];
+            for (int i = 0; i < bytes.length; i++) bytes[i] = buf.get(from + i);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private void skipWs() {
+            while (pos < end) {
+                byte c = buf.get(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return;
+                pos++;
+            }
+        }
+
+        private void expect(char c) throws IOException {
+            skipWs();
+            if (next() != c) throw error("expected '" + c + "'");
+        }
+
+        private int peek() { return pos < end ? buf.get(pos) : -1; }
+
+        private int next() { return pos < end ? buf.get(pos++) : -1; }
+
+        private static boolean isDigit(byte c) { return c >= '0' && c <= '9'; }
+
+        private IOException error(String msg) {
+            return new IOException(file + ": " + msg + " at byte " + pos);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.transport.sim;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Periodic background save. {@link #afterTurn} is called by whoever runs the
+ * turns; every {@code interval} turns it takes a {@link SaveGame} capture on
+ * that thread and hands the compression and disk write to its own daemon
+ * thread. If the previous write has not finished yet, the save is skipped
+ * rather than queued.
+ */
+public class AutoSaver {
+    private final Path file;
+    private final int interval;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "autosave");
+        t.setDaemon(true);
+        t.setPriority(Thread.MIN_PRIORITY);
+        return t;
+    });
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private Consumer<IOException> onError = e -> {};
+
+    public AutoSaver(Path file, int interval) {
+        this.file = file;
+        this.interval = interval;
+    }
+
+    /** Called on the autosave thread when a write fails. */
+    public void setOnError(Consumer<IOException> onError) { this.onError = onError; }
+
+    public void afterTurn(Simulator sim) {
+        if (sim.getTurn() % interval != 0 || !writing.compareAndSet(false, true)) return;
+        SaveGame game = SaveGame.capture(sim);
+        executor.execute(() -> {
+            try {
+                write(game, file);
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    /** Writes an already taken capture (e.g. a manual save) on the autosave thread. */
+    public void save(SaveGame game, Path target) {
+        executor.execute(() -> write(game, target));
+    }
+
+    private void write(SaveGame game, Path target) {
+        try {
+            game.write(target, true);
+        } catch (IOException e) {
+            onError.accept(e);
+        }
+    }
+
+    public void shutdown() { executor.shutdown(); }
+}
@@ -0,0 +1,82 @@
+package com.transport.sim;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Single-writer inbox of a {@link Simulator}. Any thread may submit commands;
+ * only the thread that runs the turns executes them, in submission order,
+ * between turns. The simulator itself is therefore never touched by two
+ * threads and needs no lock. Commands aimed at snapshot rows find their entity
+ * again when they run, so a row that went stale in the meantime (a sold
+ * vehicle, a job taken by someone else) just makes the command fail.
+ */
+public class CommandQueue {
+    private final Simulator sim;
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private volatile Runnable onSubmit = () -> {};
+
+    public CommandQueue(Simulator sim) {
+        this.sim = sim;
+    }
+
+    /** Called on the submitting thread after each submit, e.g. to wake an idle simulation thread. */
+    public void setOnSubmit(Runnable onSubmit) { this.onSubmit = onSubmit; }
+
+    /**
+     * Queues a command; the future completes on the simulation thread once it has run,
+     * or at once with a {@link RejectedExecutionException} when the simulation thread is gone.
+     */
+    public <T> CompletableFuture<T> submit(Function<Simulator, T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable task = () -> {
+            try {
+                result.complete(command.apply(sim));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        };
+        pending.add(task);
+        try {
+            onSubmit.run();
+        } catch (RejectedExecutionException e) {
+            pending.remove(task);
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Runs everything queued so far. Must only be called by the simulation thread.
+     * @return whether any command ran.
+     */
+    public boolean runPending() {
+        boolean ran = false;
+        for (Runnable c; (c = pending.poll()) != null; ran = true) c.run();
+        return ran;
+    }
+
+    public CompletableFuture<Boolean> hire(DriverCandidate c) { return submit(s -> s.hire(c)); }
+
+    public CompletableFuture<Boolean> buyVehicle(VehicleOffer offer) { return submit(s -> s.buyVehicle(offer)); }
+
+    public CompletableFuture<Double> sellVehicle(GameSnapshot.VehicleInfo v) { return submit(s -> s.sellVehicle(v.vehicle())); }
+
+    public CompletableFuture<Boolean> repair(GameSnapshot.VehicleInfo v) { return submit(s -> s.repair(v.vehicle())); }
+
+    /** @param v the new vehicle, null to take the current one away */
+    public CompletableFuture<Boolean> assignVehicle(GameSnapshot.DriverInfo d, GameSnapshot.VehicleInfo v) {
+        return submit(s -> s.assignVehicle(d.driver(), v == null ? null : v.vehicle()));
+    }
+
+    public CompletableFuture<Boolean> train(GameSnapshot.DriverInfo d) { return submit(s -> s.train(d.driver())); }
+
+    public CompletableFuture<Boolean> startJob(GameSnapshot.JobInfo j, GameSnapshot.DriverInfo d) {
+        return submit(s -> s.startJob(j.job(), d.driver()));
+    }
+
+    public CompletableFuture<Integer> autoDispatch() { return submit(Simulator::autoDispatch); }
+}
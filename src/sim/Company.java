@@ -1,6 +1,8 @@
 package com.transport.sim;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,51 +10,380 @@ public class Company {
     @Getter private double cash;
     @Getter private double reputation = 0; // Added reputation field
     @Getter @Setter private double fuelPrice = 1.8; 
-    private List<Vehicle> vehicles = new ArrayList<>();
-    @Getter private List<Driver> drivers = new ArrayList<>();
-    @Getter private List<Job> jobs = new ArrayList<>();
-    private Map<Integer, Double> history = new HashMap<>();
-    private Random rng = new Random();
+    private final Fleet fleet;
+    private final Roster roster;
+    private final LazyMarket<Job> jobMarket = new LazyMarket<>(this::randomMarketJob); // not yet assigned
+    private final Set<Job> activeJobs = new LinkedHashSet<>();
+    private final CompletionScheduler scheduler = new CompletionScheduler();
+    private final TurnHistory history = new TurnHistory();
+    private double turnRevenue, turnCosts; // cash flow since the last recorded turn
+    private final SimRandom rng;
     @Getter @Setter private double fuelPriceMultiplier;
 
-    @Getter private List<DriverCandidate> candidates = new ArrayList<>();
-    @Getter private List<VehicleOffer> vehicleMarket = new ArrayList<>();
+    private final LazyMarket<DriverCandidate> candidates = new LazyMarket<>(DriverCandidate::randomCandidate);
+    private final LazyMarket<VehicleOffer> vehicleMarket = new LazyMarket<>(VehicleOffer::randomOffer);
 
-    public Company(double initialCash) { this.cash = initialCash; }
+    // Assignment indexes, kept in sync by Driver.setAssignedVehicle, Job.assign and Job.setCompleted
+    private final Map<Vehicle, Driver> driverByVehicle = new IdentityHashMap<>();
+    private final Map<Driver, Job> activeJobByDriver = new IdentityHashMap<>();
+    private final Map<Vehicle, Job> activeJobByVehicle = new IdentityHashMap<>();
+    private final Map<String, Set<Job>> activeJobsByCity = new HashMap<>(); // every city on the route
+
+    public Company(double initialCash, SimRandom rng) {
+        this.cash = initialCash;
+        this.rng = rng;
+        fleet = new Fleet(this, 16);
+        roster = new Roster(this, 16);
+    }
+
+    /**
+     * Fork of {@code from} drawing from {@code rng}, for looking ahead without
+     * touching the real game. Fleet and roster are shared copy-on-write, or
+     * copied up front when {@code copyColumns} is set; jobs are copied onto
+     * the fork's handles and the history starts empty.
+     * Only reads {@code from}.
+     */
+    Company(Company from, SimRandom rng, boolean copyColumns) {
+        this.rng = rng;
+        cash = from.cash;
+        reputation = from.reputation;
+        fuelPrice = from.fuelPrice;
+        fuelPriceMultiplier = from.fuelPriceMultiplier;
+        turnRevenue = from.turnRevenue;
+        turnCosts = from.turnCosts;
+        scheduler.advanceTo(from.scheduler.getCurrentTurn());
+        fleet = copyColumns ? from.fleet.copy(this) : from.fleet.fork(this);
+        roster = copyColumns ? from.roster.copy(this, from.fleet, fleet) : from.roster.fork(this, from.fleet, fleet);
+        for (int i = 0; i < roster.size(); i++) {
+            Vehicle v = roster.assignedVehicle(i);
+            if (v != null) driverByVehicle.put(v, roster.handle(i));
+        }
+        for (Job j : from.activeJobs) {
+            int driver = from.roster.indexOf(j.getAssignedDriver()), vehicle = from.fleet.indexOf(j.getAssignedVehicle());
+            Job copy = new Job(j, driver >= 0 ? roster.handle(driver) : null, vehicle >= 0 ? fleet.handle(vehicle) : null);
+            copy.owner = this;
+            addActive(copy);
+            scheduler.schedule(copy, j.completionTurn);
+        }
+        jobMarket.copyFrom(from.jobMarket, j -> {
+            Job copy = new Job(j, null, null);
+            copy.owner = this;
+            return copy;
+        });
+        candidates.copyFrom(from.candidates, c -> c);
+        vehicleMarket.copyFrom(from.vehicleMarket, o -> o);
+    }
+
+    /** Restores a company written by {@link #writeState}. */
+    Company(StateBuffer in) {
+        fleet = new Fleet(this, 16);
+        roster = new Roster(this, 16);
+        cash = in.getDouble();
+        reputation = in.getDouble();
+        fuelPrice = in.getDouble();
+        fuelPriceMultiplier = in.getDouble();
+        turnRevenue = in.getDouble();
+        turnCosts = in.getDouble();
+        scheduler.advanceTo(in.getInt());
+        rng = SimRandom.readState(in);
+
+        // Straight into the columns, handles are only made for vehicles and drivers something points at
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            fleet.add(in.getString(), in.getDouble(), in.getInt(), in.getDouble(), in.getInt());
+        }
+        n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            int slot = roster.add(in.getString(), in.getInt(), in.getDouble());
+            int vehicle = in.getInt();
+            if (vehicle >= 0) roster.handle(slot).setAssignedVehicle(fleet.handle(vehicle));
+        }
+        n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            Job j = readJob(in);
+            int driver = in.getInt(), vehicle = in.getInt();
+            j.assign(driver >= 0 ? roster.handle(driver) : null, vehicle >= 0 ? fleet.handle(vehicle) : null);
+            j.owner = this;
+            addActive(j);
+            scheduler.schedule(j, in.getInt());
+        }
+        readMarket(in, jobMarket, b -> {
+            Job j = readJob(b);
+            j.owner = this;
+            return j;
+        });
+        readMarket(in, candidates, b -> new DriverCandidate(b.getString(), b.getInt(), b.getDouble(), b.getDouble()));
+        readMarket(in, vehicleMarket, b -> new VehicleOffer(b.getString(), b.getInt(), b.getDouble(), b.getDouble()));
+        history.readState(in);
+    }
+
+    /**
+     * Encodes the whole company. Vehicles and drivers are referenced by their
+     * position in the fleet and roster; a job whose driver or vehicle has left
+     * the company stores -1 and is cancelled when it comes due, as it would be.
+     */
+    void writeState(StateBuffer out) {
+        out.putDouble(cash);
+        out.putDouble(reputation);
+        out.putDouble(fuelPrice);
+        out.putDouble(fuelPriceMultiplier);
+        out.putDouble(turnRevenue);
+        out.putDouble(turnCosts);
+        out.putInt(scheduler.getCurrentTurn());
+        rng.writeState(out);
+
+        out.putInt(fleet.size());
+        for (int i = 0; i < fleet.size(); i++) {
+            out.putString(fleet.name(i));
+            out.putDouble(fleet.value(i));
+            out.putInt(fleet.condition(i));
+            out.putDouble(fleet.fuelConsumptionPerKm(i));
+            out.putInt(fleet.kmSinceMaintenance(i));
+        }
+        out.putInt(roster.size());
+        for (int i = 0; i < roster.size(); i++) {
+            out.putString(roster.name(i));
+            out.putInt(roster.skill(i));
+            out.putDouble(roster.salary(i));
+            out.putInt(fleet.indexOf(roster.assignedVehicle(i)));
+        }
+        out.putInt(activeJobs.size());
+        for (Job j : activeJobs) {
+            writeJob(out, j);
+            out.putInt(roster.indexOf(j.getAssignedDriver()));
+            out.putInt(fleet.indexOf(j.getAssignedVehicle()));
+            out.putInt(j.completionTurn);
+        }
+        writeMarket(out, jobMarket, Company::writeJob);
+        writeMarket(out, candidates, (b, c) -> {
+            b.putString(c.getName());
+            b.putInt(c.getSkill());
+            b.putDouble(c.getHireCost());
+            b.putDouble(c.getSalary());
+        });
+        writeMarket(out, vehicleMarket, (b, o) -> {
+            b.putString(o.getName());
+            b.putInt(o.getCondition());
+            b.putDouble(o.getPrice());
+            b.putDouble(o.getFuelConsumption());
+        });
+        history.writeState(out);
+    }
+
+    // A market nobody has opened since its refresh is stored as its seed and count
+    private static <T> void writeMarket(StateBuffer out, LazyMarket<T> market, BiConsumer<StateBuffer, T> writer) {
+        out.putBoolean(market.isPending());
+        if (market.isPending()) {
+            out.putLong(market.seed());
+            out.putInt(market.count());
+            return;
+        }
+        List<T> offers = market.offers();
+        out.putInt(offers.size());
+        for (T o : offers) writer.accept(out, o);
+    }
+
+    private static <T> void readMarket(StateBuffer in, LazyMarket<T> market, Function<StateBuffer, T> reader) {
+        if (in.version() >= 4 && in.getBoolean()) {
+            long seed = in.getLong();
+            market.refresh(seed, in.getInt());
+            return;
+        }
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) market.offers().add(reader.apply(in));
+    }
+    private static void writeJob(StateBuffer out, Job j) {
+        out.putString(j.getTitle());
+        out.putDouble(j.getReward());
+        out.putInt(j.getRouteLength());
+        out.putInt(j.getMinSkillRequired());
+        Route r = j.getRoute();
+        out.putString(r == null ? null : r.getOrigin());
+        out.putString(r == null ? null : r.getDestination());
+    }
+
+    // Routes are stored by their end cities and looked up again on the current map
+    private static Job readJob(StateBuffer in) {
+        String title = in.getString();
+        double reward = in.getDouble();
+        int routeLength = in.getInt();
+        int minSkill = in.getInt();
+        if (in.version() < 3) return new Job(title, reward, routeLength, minSkill);
+        String from = in.getString(), to = in.getString();
+        RoadNetwork roads = RoadNetwork.poland();
+        if (from == null || !roads.contains(from) || !roads.contains(to)) return new Job(title, reward, routeLength, minSkill);
+        return new Job(title, reward, roads.route(from, to), minSkill);
+    }
     
-    public void addCash(double delta) { cash += delta; }
+    public void addCash(double delta) {
+        cash += delta;
+        if (delta > 0) turnRevenue += delta;
+        else turnCosts -= delta;
+    }
     
     // Added method to handle reputation changes
     public void addReputation(double delta) { this.reputation += delta; }
 
-    public void addVehicle(Vehicle v) { vehicles.add(v); }
-    public void removeVehicle(Vehicle v) { vehicles.remove(v); }
-    public List<Vehicle> getVehicles() { return vehicles; }
+    public void addVehicle(Vehicle v) {
+        if (ownsVehicle(v)) return;
+        if (v.store.owner != null) v.store.owner.removeVehicle(v);
+        fleet.adopt(v);
+    }
+
+    /** Adds a vehicle straight into the fleet columns, without a handle. */
+    void addVehicle(String name, double value, int condition, double fuelConsumptionPerKm) {
+        fleet.add(name, value, condition, fuelConsumptionPerKm, 0);
+    }
+
+    public void removeVehicle(Vehicle v) {
+        if (!ownsVehicle(v)) return;
+        Driver d = getDriverForVehicle(v);
+        if (d != null) d.setAssignedVehicle(null);
+        fleet.release(v);
+        // the job it was running gets cancelled on the next turn
+        Job running = activeJobByVehicle.get(v);
+        if (running != null) scheduler.schedule(running, scheduler.getCurrentTurn() + 1);
+    }
+
+    public boolean ownsVehicle(Vehicle v) { return fleet.indexOf(v) >= 0; }
+
+    /** Read-only view of the fleet, in purchase order. */
+    public List<Vehicle> getVehicles() { return fleet.asList(); }
+
+    Fleet fleet() { return fleet; }
     
     public Vehicle getRandomVehicle() { 
-        if (vehicles.isEmpty()) return null; 
-        return vehicles.get(rng.nextInt(vehicles.size())); 
+        if (fleet.size() == 0) return null; 
+        return fleet.handle(rng.nextInt(fleet.size())); 
+    }
+
+    public void addDriver(Driver d) {
+        if (roster.indexOf(d) >= 0) return;
+        if (d.store.owner != null) d.store.owner.removeDriver(d);
+        roster.adopt(d);
+        if (d.getAssignedVehicle() != null) onVehicleAssigned(d, null, d.getAssignedVehicle());
     }
 
-    public void addDriver(Driver d) { drivers.add(d); }
-    public void removeDriver(Driver d) { drivers.remove(d); }
-    public Driver getRandomDriver() { if (drivers.isEmpty()) return null; return drivers.get(rng.nextInt(drivers.size())); }
+    public void removeDriver(Driver d) {
+        if (roster.indexOf(d) < 0) return;
+        d.setAssignedVehicle(null);
+        roster.release(d);
+    }
+
+    /** Read-only view of the roster, in hiring order. */
+    public List<Driver> getDrivers() { return roster.asList(); }
+
+    public Driver getRandomDriver() { if (roster.size() == 0) return null; return roster.handle(rng.nextInt(roster.size())); }
+
+    // Running totals kept by the fleet and roster stores, O(1) to read
+
+    /** Salaries due per turn. */
+    public double getTotalSalaries() { return roster.payroll(); }
 
-    public void addJob(Job j) { jobs.add(j); }
+    /** Fleet value scaled by vehicle condition. */
+    public double getFleetAssetValue() { return fleet.assetValue(); }
 
-    public void recordTurn(int turn) { history.put(turn, cash); }
-    public Map<Integer, Double> getHistory() { return history; }
+    public int getVehicleCount() { return fleet.size(); }
 
-    public boolean isDriverBusy(Driver d) {
-        return jobs.stream().anyMatch(j -> j.isAssigned() && !j.isCompleted() && j.getAssignedDriver() == d);
+    public int getDriverCount() { return roster.size(); }
+
+    public void addJob(Job j) {
+        j.owner = this;
+        if (j.isAssigned() && !j.isCompleted()) onJobAssigned(j);
+        else jobMarket.offers().add(j);
+    }
+
+    private Job randomMarketJob(SimRandom rng) {
+        Job j = Job.randomJob(rng);
+        j.owner = this;
+        return j;
     }
 
-    public boolean isVehicleBusy(Vehicle v) {
-        return jobs.stream().anyMatch(j -> j.isAssigned() && !j.isCompleted() && j.getAssignedVehicle() == v);
+    /** Jobs in transit followed by the current job market. */
+    public List<Job> getJobs() {
+        List<Job> market = jobMarket.offers();
+        List<Job> all = new ArrayList<>(activeJobs.size() + market.size());
+        all.addAll(activeJobs);
+        all.addAll(market);
+        return all;
     }
 
-    public Driver getDriverForVehicle(Vehicle v) {
-        return drivers.stream().filter(d -> d.getAssignedVehicle() == v).findFirst().orElse(null);
+    /** Jobs on offer this turn, not yet assigned. */
+    public List<Job> getJobMarket() { return Collections.unmodifiableList(jobMarket.offers()); }
+
+    // Markets are generated on first access, see LazyMarket
+
+    public List<DriverCandidate> getCandidates() { return candidates.offers(); }
+
+    public List<VehicleOffer> getVehicleMarket() { return vehicleMarket.offers(); }
+
+    public Collection<Job> getActiveJobs() { return Collections.unmodifiableCollection(activeJobs); }
+
+    public int getCurrentTurn() { return scheduler.getCurrentTurn(); }
+
+    /**
+     * Advances the completion schedule to {@code turn}.
+     * @return jobs finishing this turn (reused list, valid until the next call).
+     */
+    public List<Job> collectDueJobs(int turn) { return scheduler.advanceTo(turn); }
+
+    public void recordTurn(int turn) {
+        history.record(turn, cash, fuelPrice, reputation, fleet.size(), turnRevenue, turnCosts);
+        turnRevenue = 0;
+        turnCosts = 0;
+    }
+
+    public TurnHistory getHistory() { return history; }
+
+    public boolean isDriverBusy(Driver d) { return activeJobByDriver.containsKey(d); }
+
+    public boolean isVehicleBusy(Vehicle v) { return activeJobByVehicle.containsKey(v); }
+
+    public Driver getDriverForVehicle(Vehicle v) { return driverByVehicle.get(v); }
+
+    Job getActiveJob(Driver d) { return activeJobByDriver.get(d); }
+
+    Job getActiveJob(Vehicle v) { return activeJobByVehicle.get(v); }
+
+    /** Active jobs whose route passes through {@code city}. */
+    Collection<Job> getActiveJobsThrough(String city) {
+        return activeJobsByCity.getOrDefault(city, Collections.emptySet());
+    }
+
+    /** Pushes the completion of an active job back by {@code turns}. */
+    void delayJob(Job j, int turns) { scheduler.schedule(j, j.completionTurn + turns); }
+
+    void onVehicleAssigned(Driver d, Vehicle old, Vehicle v) {
+        if (old != null && driverByVehicle.get(old) == d) driverByVehicle.remove(old);
+        if (v == null) return;
+        Driver previous = driverByVehicle.put(v, d);
+        // a vehicle has a single driver - take it away from whoever had it before
+        if (previous != null && previous != d) previous.setAssignedVehicle(null);
+    }
+
+    void onJobAssigned(Job j) {
+        jobMarket.offers().remove(j);
+        addActive(j);
+        scheduler.schedule(j, scheduler.getCurrentTurn() + j.travelTurns());
+    }
+
+    void onJobFinished(Job j) {
+        activeJobs.remove(j);
+        activeJobByDriver.remove(j.getAssignedDriver(), j);
+        activeJobByVehicle.remove(j.getAssignedVehicle(), j);
+        if (j.getRoute() == null) return;
+        for (String city : j.getRoute().getPath()) {
+            Set<Job> through = activeJobsByCity.get(city);
+            if (through != null && through.remove(j) && through.isEmpty()) activeJobsByCity.remove(city);
+        }
+    }
+
+    private void addActive(Job j) {
+        activeJobs.add(j);
+        if (j.getAssignedDriver() != null) activeJobByDriver.put(j.getAssignedDriver(), j);
+        if (j.getAssignedVehicle() != null) activeJobByVehicle.put(j.getAssignedVehicle(), j);
+        if (j.getRoute() == null) return;
+        for (String city : j.getRoute().getPath()) activeJobsByCity.computeIfAbsent(city, c -> new LinkedHashSet<>()).add(j);
     }
 
     public boolean purchaseVehicle(Vehicle v) {
@@ -65,58 +396,37 @@ public class Company {
     }
 
     public double sellVehicle(Vehicle v) {
-        if (!vehicles.contains(v)) return 0.0;
+        if (!ownsVehicle(v)) return 0.0;
         double price = v.getValue() * (0.4 + 0.6 * (v.getCondition()/100.0));
         removeVehicle(v);
-        Driver d = getDriverForVehicle(v);
-        if(d != null) d.setAssignedVehicle(null);
         addCash(price);
         return price;
     }
 
-    public void refreshCandidatePool() {
-        candidates.clear();
-        int count = 3 + rng.nextInt(3);
-        for (int i = 0; i < count; i++) {
-            candidates.add(DriverCandidate.randomCandidate());
-        }
-    }
+    public void refreshCandidatePool() { candidates.refresh(rng.nextLong(), 3 + rng.nextInt(3)); }
 
     public boolean hireCandidate(DriverCandidate c) {
         if (cash >= c.getHireCost()) {
             // Updated to include salary argument
-            addDriver(new Driver(c.getName(), c.getSkill(), c.getSalary()));
+            roster.add(c.getName(), c.getSkill(), c.getSalary());
             addCash(-c.getHireCost());
-            candidates.remove(c);
+            candidates.offers().remove(c);
             return true;
         }
         return false;
     }
 
-    public void refreshVehicleMarket() {
-        vehicleMarket.clear();
-        int count = 3 + rng.nextInt(3);
-        for (int i = 0; i < count; i++) vehicleMarket.add(VehicleOffer.randomOffer());
-    }
+    public void refreshVehicleMarket() { vehicleMarket.refresh(rng.nextLong(), 3 + rng.nextInt(3)); }
 
     public boolean buyOffer(VehicleOffer offer) {
         if (cash >= offer.getPrice()) {
             addCash(-offer.getPrice());
-            addVehicle(new Vehicle(offer.getName(), offer.getPrice(), offer.getCondition(), offer.getFuelConsumption()));
-            vehicleMarket.remove(offer);
+            addVehicle(offer.getName(), offer.getPrice(), offer.getCondition(), offer.getFuelConsumption());
+            vehicleMarket.offers().remove(offer);
             return true;
         }
         return false;
     }
 
-    public void refreshJobMarket() {
-        List<Job> active = new ArrayList<>();
-        for(Job j : jobs) if(j.isAssigned() && !j.isCompleted()) active.add(j);
-        jobs = active;
-        
-        int count = 3 + rng.nextInt(3); 
-        for (int i = 0; i < count; i++) {
-            jobs.add(Job.randomJob());
-        }
-    }
+    public void refreshJobMarket() { jobMarket.refresh(rng.nextLong(), 3 + rng.nextInt(3)); }
 }
@@ -0,0 +1,67 @@
+package com.transport.sim;
+
+import java.util.*;
+import lombok.Getter;
+
+/**
+ * Timing wheel of assigned jobs keyed by the absolute turn they finish on.
+ * Advancing a turn only touches the bucket for that turn, so jobs in transit
+ * are never rescanned. Jobs due further out than the wheel wait in an overflow
+ * queue and are moved into the wheel as their turn comes within range.
+ * A job is due at most once per scheduling, however often it was rescheduled.
+ */
+public class CompletionScheduler {
+    private static final int WHEEL_SIZE = 64; // must be a power of two
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<List<Job>> wheel = new ArrayList<>(WHEEL_SIZE);
+    private final PriorityQueue<Job> overflow = new PriorityQueue<>(Comparator.comparingInt(j -> j.completionTurn));
+    private final List<Job> due = new ArrayList<>();
+    @Getter private int currentTurn;
+
+    public CompletionScheduler() {
+        for (int i = 0; i < WHEEL_SIZE; i++) wheel.add(new ArrayList<>());
+    }
+
+    /**
+     * Schedules (or reschedules) a job to finish on {@code turn}, at the earliest next turn.
+     * A previous wheel entry for the same job is dropped lazily when its bucket comes up.
+     */
+    public void schedule(Job j, int turn) {
+        turn = Math.max(turn, currentTurn + 1);
+        if (j.queued) {
+            if (j.completionTurn == turn) return;
+            // the heap is ordered by completionTurn, so the job leaves it before that changes
+            if (j.completionTurn - currentTurn >= WHEEL_SIZE) overflow.remove(j);
+        }
+        j.queued = true;
+        j.completionTurn = turn;
+        if (turn - currentTurn < WHEEL_SIZE) wheel.get(turn & MASK).add(j);
+        else overflow.add(j);
+    }
+
+    /**
+     * Moves the clock to {@code turn} and returns the jobs finishing on it.
+     * The returned list is reused by the next call.
+     */
+    public List<Job> advanceTo(int turn) {
+        due.clear();
+        while (currentTurn < turn) {
+            currentTurn++;
+            while (!overflow.isEmpty() && overflow.peek().completionTurn - currentTurn < WHEEL_SIZE) {
+                Job j = overflow.poll();
+                wheel.get(j.completionTurn & MASK).add(j);
+            }
+            List<Job> bucket = wheel.get(currentTurn & MASK);
+            for (Job j : bucket) {
+                // a job rescheduled back to an earlier turn can sit in the bucket twice
+                if (j.queued && j.completionTurn == currentTurn && !j.isCompleted()) {
+                    j.queued = false;
+                    due.add(j);
+                }
+            }
+            bucket.clear();
+        }
+        return due;
+    }
+}
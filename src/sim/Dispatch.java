@@ -0,0 +1,14 @@
+package com.transport.sim;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** One job handed to a driver and the vehicle they drive, as planned by the {@link Dispatcher}. */
+@Getter
+@AllArgsConstructor
+public class Dispatch {
+    private final Job job;
+    private final Driver driver;
+    private final Vehicle vehicle;
+    private final double expectedProfit;
+}
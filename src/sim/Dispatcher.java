@@ -0,0 +1,448 @@
+package com.transport.sim;
+
+import java.util.*;
+
+/**
+ * Matches idle crews (a driver with the vehicle assigned to them) to open jobs
+ * so that the total expected profit is as high as possible.
+ *
+ * The expected profit of a pair uses the outcome model of the turn itself:
+ * success probability from skill, condition and the skill requirement, revenue
+ * with the skill bonus and difficulty multiplier minus fuel at today's price,
+ * and the penalty on failure. Pairs that do not pay on average are never made.
+ *
+ * The matching is an auction with epsilon scaling over a shortlist of the jobs,
+ * with crews free to stay home. Profits are evaluated on the
+ * fly from two linear factors per crew rather than a crew x job table, so memory
+ * stays linear in crews + jobs.
+ */
+public class Dispatcher {
+    static final double PRECISION = 0.01; // money units, for the whole plan
+    private static final double SCALING = 6;
+    private static final int CANDIDATES = 16; // jobs remembered per crew between scans
+
+    private final double fuelPrice;
+    private final double revenueMult;
+
+    public Dispatcher(double fuelPrice, double revenueMultiplier) {
+        this.fuelPrice = fuelPrice;
+        this.revenueMult = revenueMultiplier;
+    }
+
+    public static Dispatcher forCompany(Company company, GameSettings settings) {
+        return new Dispatcher(company.getFuelPrice(), settings.getDifficulty().getRevenueMultiplier());
+    }
+
+    /** Expected profit of sending {@code d} out on {@code j} with vehicle {@code v}. */
+    public double expectedProfit(Driver d, Vehicle v, Job j) {
+        return expectedProfit(d.getSkill(), v.getCondition(), v.getFuelConsumptionPerKm(),
+                j.getReward(), j.getRouteLength(), j.getMinSkillRequired());
+    }
+
+    private double expectedProfit(int skill, int condition, double fuelPerKm, double reward, int route, int minSkill) {
+        double p = Simulator.successProbability(skill, condition, minSkill);
+        double fuel = Simulator.fuelCost(route, fuelPerKm, fuelPrice);
+        return p * Simulator.successProfit(reward, skill, revenueMult, fuel) - (1 - p) * Simulator.failurePenalty(reward);
+    }
+
+    /**
+     * Plans the dispatch of the company's open jobs to its idle crews.
+     * Nothing is changed; {@link Simulator#autoDispatch} carries the plan out.
+     */
+    public List<Dispatch> plan(Company company) {
+        List<Driver> crews = new ArrayList<>();
+        for (Driver d : company.getDrivers()) {
+            Vehicle v = d.getAssignedVehicle();
+            if (v != null && !company.isDriverBusy(d) && !company.isVehicleBusy(v)) crews.add(d);
+        }
+        List<Job> open = new ArrayList<>();
+        for (Job j : company.getJobMarket()) if (!j.isAssigned()) open.add(j);
+        return plan(crews, open);
+    }
+
+    /** Plans {@code jobs} over {@code drivers}, each driving their assigned vehicle. */
+    public List<Dispatch> plan(List<Driver> drivers, List<Job> jobs) {
+        int n = drivers.size(), m = jobs.size();
+        if (n == 0 || m == 0) return new ArrayList<>();
+
+        // profit = reward * perReward - route * perKm, with one pair of factors for a
+        // crew qualified for the job (level >= minSkill + 2) and one for a crew below it
+        int[] level = new int[n];
+        double[] perReward = new double[2 * n], perKm = new double[2 * n];
+        for (int i = 0; i < n; i++) {
+            Driver d = drivers.get(i);
+            Vehicle v = d.getAssignedVehicle();
+            level[i] = d.getSkill() / 10;
+            int[] minSkill = {level[i] - 2, level[i] - 1};
+            for (int k = 0; k < 2; k++) {
+                double p = Simulator.successProbability(d.getSkill(), v.getCondition(), minSkill[k]);
+                double unitRevenue = Simulator.successProfit(1, d.getSkill(), revenueMult, 0);
+                perReward[2 * i + k] = p * unitRevenue + (1 - p) * -Simulator.failurePenalty(1);
+                perKm[2 * i + k] = p * Simulator.fuelCost(1, v.getFuelConsumptionPerKm(), fuelPrice);
+            }
+        }
+        double[] reward = new double[m], route = new double[m];
+        int[] need = new int[m];
+        for (int j = 0; j < m; j++) {
+            Job job = jobs.get(j);
+            reward[j] = job.getReward();
+            route[j] = job.getRouteLength();
+            need[j] = job.getMinSkillRequired() + 2;
+        }
+
+        Shortlist shortlist = new Shortlist(n, m, level, perReward, perKm, reward, route, need);
+        int k = shortlist.jobs.length;
+        if (k == 0) return new ArrayList<>();
+        double[] listedReward = new double[k], listedRoute = new double[k];
+        int[] listedNeed = new int[k];
+        for (int j = 0; j < k; j++) {
+            listedReward[j] = reward[shortlist.jobs[j]];
+            listedRoute[j] = route[shortlist.jobs[j]];
+            listedNeed[j] = need[shortlist.jobs[j]];
+        }
+        Auction auction = new Auction(n, k, level, perReward, perKm, listedReward, listedRoute, listedNeed);
+        auction.solve(shortlist.maxProfit);
+
+        List<Dispatch> out = new ArrayList<>();
+        for (int j = 0; j < k; j++) {
+            int i = auction.owner[j];
+            if (i < 0) continue;
+            Driver d = drivers.get(i);
+            Job job = jobs.get(shortlist.jobs[j]);
+            out.add(new Dispatch(job, d, d.getAssignedVehicle(), expectedProfit(d, d.getAssignedVehicle(), job)));
+        }
+        return out;
+    }
+
+    private static double profit(int i, int j, int[] level, double[] perReward, double[] perKm,
+                                 double[] reward, double[] route, int[] need) {
+        int k = 2 * i + ((level[i] - need[j]) >>> 31); // 1 when below the requirement
+        return reward[j] * perReward[k] - route[j] * perKm[k];
+    }
+
+    /**
+     * Jobs worth bidding on. Some optimal plan gives every crew one of its n most
+     * profitable jobs (one of them is always left free to swap to), and never a
+     * job that loses money, so everything else can be dropped before the auction.
+     * The same pass finds the largest profit, where the auction starts its prices.
+     */
+    private static final class Shortlist {
+        final int[] jobs;
+        final double maxProfit;
+
+        Shortlist(int n, int m, int[] level, double[] perReward, double[] perKm,
+                  double[] reward, double[] route, int[] need) {
+            boolean[] listed = new boolean[m];
+            int[] positive = new int[m];
+            double[] profits = new double[m], selected = new double[m];
+            double max = 0;
+            for (int i = 0; i < n; i++) {
+                int count = 0;
+                for (int j = 0; j < m; j++) {
+                    double p = profit(i, j, level, perReward, perKm, reward, route, need);
+                    if (p <= 0) continue;
+                    positive[count] = j;
+                    profits[count++] = p;
+                    max = Math.max(max, p);
+                }
+                double threshold = 0;
+                if (count > n) {
+                    System.arraycopy(profits, 0, selected, 0, count);
+                    threshold = nthLargest(selected, count, n);
+                }
+                for (int c = 0; c < count; c++) if (profits[c] >= threshold) listed[positive[c]] = true;
+            }
+            int count = 0;
+            int[] out = new int[m];
+            for (int j = 0; j < m; j++) if (listed[j]) out[count++] = j;
+            jobs = Arrays.copyOf(out, count);
+            maxProfit = max;
+        }
+    }
+
+    /** Quickselect on {@code a[0, len)}; reorders the slice. */
+    private static double nthLargest(double[] a, int len, int n) {
+        int lo = 0, hi = len - 1, target = n - 1;
+        while (lo < hi) {
+            double pivot = a[(lo + hi) >>> 1];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (a[i] > pivot) i++;
+                while (a[j] < pivot) j--;
+                if (i <= j) {
+                    double t = a[i]; a[i] = a[j]; a[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) hi = j;
+            else if (target >= i) lo = i;
+            else break;
+        }
+        return a[target];
+    }
+
+    /**
+     * Forward auction with epsilon scaling (Bertsekas) for the asymmetric problem:
+     * only crews bid, every job has a reserve price of 0 and a crew may stay home
+     * for 0 instead. A crew raises the price of its best job by the margin over its
+     * second best option plus eps. Each phase keeps the prices and the assignments
+     * still within eps of the best and rebids the rest. The plan is optimal only if
+     * every job left over is back at its reserve, so each phase ends with reverse
+     * bids: a leftover job with a price either drops to 0 or takes the crew it is
+     * worth most to from that crew's job. Every crew then ends within eps of its
+     * best option, so eps = PRECISION / n leaves the plan within PRECISION.
+     */
+    private static final class Auction {
+        final int n, m;
+        final int[] level, need;
+        final double[] perReward, perKm, reward, route;
+        final double[] price;
+        final int[] owner, assigned, queue, leftover, cutJobs;
+        final int[] candidates, candidateCount, bidders, bidderCount;
+        final double[] bound, margin, jobBound, top = new double[CANDIDATES];
+        final boolean[] cut;
+        int best;
+        double w1, w2;
+
+        Auction(int n, int m, int[] level, double[] perReward, double[] perKm, double[] reward, double[] route, int[] need) {
+            this.n = n;
+            this.m = m;
+            this.level = level;
+            this.perReward = perReward;
+            this.perKm = perKm;
+            this.reward = reward;
+            this.route = route;
+            this.need = need;
+            price = new double[m];
+            owner = new int[m];
+            assigned = new int[n];
+            queue = new int[n];
+            leftover = new int[m];
+            cutJobs = new int[m];
+            candidates = new int[n * CANDIDATES];
+            candidateCount = new int[n];
+            bidders = new int[m * CANDIDATES];
+            bidderCount = new int[m];
+            bound = new double[n];
+            margin = new double[n];
+            jobBound = new double[m];
+            cut = new boolean[m];
+            Arrays.fill(owner, -1);
+            Arrays.fill(assigned, -1);
+        }
+
+        double profit(int i, int j) {
+            return Dispatcher.profit(i, j, level, perReward, perKm, reward, route, need);
+        }
+
+        /** Finds crew {@code x}'s best job and the two best net values over the jobs. */
+        void search(int x) {
+            best = -1;
+            w1 = w2 = Double.NEGATIVE_INFINITY;
+            if (!searchCandidates(x)) scanJobs(x);
+        }
+
+        // Bids only raise prices and settle lists any job it makes worth more than the
+        // bound, so no job off the list can be worth more than the bound; the list
+        // answers as long as its second best is still at or above that bound.
+        private boolean searchCandidates(int x) {
+            int count = candidateCount[x];
+            if (count == 0) return false;
+            for (int k = 0; k < count; k++) {
+                int j = candidates[x * CANDIDATES + k];
+                double w = profit(x, j) - price[j];
+                if (w > w1) { w2 = w1; w1 = w; best = j; }
+                else if (w > w2) w2 = w;
+            }
+            if (w2 >= bound[x]) return true;
+            best = -1;
+            w1 = w2 = Double.NEGATIVE_INFINITY;
+            return false;
+        }
+
+        /** Full scan over the jobs, keeping the best CANDIDATES of them for later bids. */
+        private void scanJobs(int x) {
+            int base = x * CANDIDATES, count = 0;
+            double limit = Double.NEGATIVE_INFINITY;
+            int lvl = level[x];
+            double qualifiedR = perReward[2 * x], qualifiedKm = perKm[2 * x];
+            double belowR = perReward[2 * x + 1], belowKm = perKm[2 * x + 1];
+            for (int j = 0; j < m; j++) {
+                boolean below = lvl < need[j];
+                double w = reward[j] * (below ? belowR : qualifiedR) - route[j] * (below ? belowKm : qualifiedKm) - price[j];
+                if (count == CANDIDATES && w <= top[CANDIDATES - 1]) {
+                    limit = Math.max(limit, w);
+                    continue;
+                }
+                if (count == CANDIDATES) limit = Math.max(limit, top[--count]);
+                int k = count++;
+                for (; k > 0 && top[k - 1] < w; k--) {
+                    top[k] = top[k - 1];
+                    candidates[base + k] = candidates[base + k - 1];
+                }
+                top[k] = w;
+                candidates[base + k] = j;
+            }
+            candidateCount[x] = count;
+            bound[x] = limit;
+            best = candidates[base];
+            w1 = top[0];
+            if (count > 1) w2 = top[1];
+        }
+
+        void solve(double maxProfit) {
+            double finalEps = PRECISION / n;
+            for (double eps = Math.max(maxProfit / 2, finalEps); ; eps = Math.max(eps / SCALING, finalEps)) {
+                phase(eps);
+                settle(eps);
+                if (eps <= finalEps) break;
+            }
+        }
+
+        private void phase(double eps) {
+            int pending = 0;
+            for (int x = 0; x < n; x++) {
+                int o = assigned[x];
+                if (o >= 0) {
+                    search(x);
+                    if (profit(x, o) - price[o] >= Math.max(w1, 0) - eps) continue;
+                    owner[o] = -1;
+                    assigned[x] = -1;
+                }
+                queue[pending++] = x;
+            }
+            int head = 0, tail = pending % n;
+            while (pending > 0) {
+                int x = queue[head];
+                head = (head + 1) % n;
+                pending--;
+
+                search(x);
+                if (w1 <= 0) continue; // stays home
+                price[best] += w1 - Math.max(w2, 0) + eps;
+                int outbid = owner[best];
+                owner[best] = x;
+                assigned[x] = best;
+                if (outbid >= 0) {
+                    assigned[outbid] = -1;
+                    queue[tail] = outbid;
+                    tail = (tail + 1) % n;
+                    pending++;
+                }
+            }
+        }
+
+        // Reverse bids for the jobs left over with a price, after every phase so that
+        // each one only has to correct prices that are already within a few eps. A
+        // reverse bid moves a crew between jobs and never sends it home, so no crew
+        // is left to bid.
+        private void settle(double eps) {
+            for (int x = 0; x < n; x++) {
+                int o = assigned[x];
+                margin[x] = o >= 0 ? profit(x, o) - price[o] : 0;
+            }
+            int count = 0, cutCount = 0;
+            for (int j = 0; j < m; j++) if (owner[j] < 0 && price[j] > 0) leftover[count++] = j;
+            while (count > 0) {
+                int j = leftover[--count];
+                searchBack(j);
+                if (!cut[j]) {
+                    cut[j] = true;
+                    cutJobs[cutCount++] = j;
+                }
+                if (w1 <= eps) {
+                    price[j] = 0;
+                    continue;
+                }
+                price[j] = Math.max(0, w2 - eps);
+                margin[best] = profit(best, j) - price[j];
+                int left = assigned[best];
+                owner[j] = best;
+                assigned[best] = j;
+                if (left >= 0) {
+                    owner[left] = -1;
+                    if (price[left] > 0) leftover[count++] = left;
+                }
+            }
+            // Prices only fell here, so a cut job may now beat the bound of a crew's list
+            for (int c = 0; c < cutCount; c++) {
+                int j = cutJobs[c];
+                cut[j] = false;
+                bidderCount[j] = 0;
+                double r = reward[j], km = route[j], p = price[j];
+                int needed = need[j];
+                for (int x = 0; x < n; x++) {
+                    int k2 = 2 * x + ((level[x] - needed) >>> 31);
+                    double w = r * perReward[k2] - km * perKm[k2] - p;
+                    if (w > bound[x]) list(x, j, w);
+                }
+            }
+        }
+
+        /** Puts job {@code j}, now worth {@code w}, on crew {@code x}'s list in place of its weakest job. */
+        private void list(int x, int j, double w) {
+            int base = x * CANDIDATES, count = candidateCount[x], weakest = -1;
+            double low = w;
+            for (int k = 0; k < count; k++) {
+                int o = candidates[base + k];
+                if (o == j) return;
+                double v = profit(x, o) - price[o];
+                if (v < low) { low = v; weakest = k; }
+            }
+            bound[x] = Math.max(bound[x], low);
+            if (weakest >= 0) candidates[base + weakest] = j;
+        }
+
+        /** Finds the crew that gains most over its current margin by taking job {@code j}, and the two best gains. */
+        private void searchBack(int j) {
+            best = -1;
+            w1 = w2 = Double.NEGATIVE_INFINITY;
+            if (!searchBidders(j)) scanCrews(j);
+        }
+
+        // Margins only rise during a settle, the mirror image of the candidate lists
+        private boolean searchBidders(int j) {
+            int count = bidderCount[j];
+            if (count == 0) return false;
+            for (int k = 0; k < count; k++) {
+                int x = bidders[j * CANDIDATES + k];
+                double w = profit(x, j) - margin[x];
+                if (w > w1) { w2 = w1; w1 = w; best = x; }
+                else if (w > w2) w2 = w;
+            }
+            if (w2 >= jobBound[j]) return true;
+            best = -1;
+            w1 = w2 = Double.NEGATIVE_INFINITY;
+            return false;
+        }
+
+        private void scanCrews(int j) {
+            int base = j * CANDIDATES, count = 0;
+            double limit = Double.NEGATIVE_INFINITY;
+            double r = reward[j], km = route[j];
+            int needed = need[j];
+            for (int x = 0; x < n; x++) {
+                int k2 = 2 * x + ((level[x] - needed) >>> 31);
+                double w = r * perReward[k2] - km * perKm[k2] - margin[x];
+                if (count == CANDIDATES && w <= top[CANDIDATES - 1]) {
+                    limit = Math.max(limit, w);
+                    continue;
+                }
+                if (count == CANDIDATES) limit = Math.max(limit, top[--count]);
+                int k = count++;
+                for (; k > 0 && top[k - 1] < w; k--) {
+                    top[k] = top[k - 1];
+                    bidders[base + k] = bidders[base + k - 1];
+                }
+                top[k] = w;
+                bidders[base + k] = x;
+            }
+            bidderCount[j] = count;
+            jobBound[j] = limit;
+            best = bidders[base];
+            w1 = top[0];
+            if (count > 1) w2 = top[1];
+        }
+    }
+}
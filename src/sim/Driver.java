@@ -1,21 +1,33 @@
 package com.transport.sim;
 
-import lombok.Getter;
-import lombok.Setter;
-
+/** Handle onto a slot of a {@link Roster}, see {@link Vehicle}. */
 public class Driver {
-    @Getter private String name;
-    @Getter private int skill; 
-    @Getter private double salary; // Added salary field
-    @Getter @Setter private Vehicle assignedVehicle;
+    Roster store;
+    int slot;
 
     public Driver(String name, int skill, double salary) { 
-        this.name = name; 
-        this.skill = skill; 
-        this.salary = salary; // Updated constructor
+        Roster loose = new Roster(null, 1);
+        loose.bind(this, loose.add(name, skill, salary));
+    }
+
+    Driver(Roster store, int slot) {
+        this.store = store;
+        this.slot = slot;
+    }
+
+    public String getName() { return store.name(slot); }
+    public int getSkill() { return store.skill(slot); }
+    public double getSalary() { return store.salary(slot); }
+    public Vehicle getAssignedVehicle() { return store.assignedVehicle(slot); }
+
+    public void setAssignedVehicle(Vehicle v) {
+        Vehicle old = getAssignedVehicle();
+        store.setAssignedVehicle(slot, v);
+        // the owning company keeps its assignment index in sync
+        if (store.owner != null && old != v) store.owner.onVehicleAssigned(this, old, v);
     }
 
-    public void train(int delta) { skill = Math.min(100, skill + delta); }
+    public void train(int delta) { store.train(slot, delta); }
 
-    public boolean hasVehicle() { return assignedVehicle != null; }
+    public boolean hasVehicle() { return getAssignedVehicle() != null; }
 }
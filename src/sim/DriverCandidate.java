@@ -1,6 +1,6 @@
 package com.transport.sim;
 
-import java.util.*;
+import java.util.random.RandomGenerator;
 import lombok.Getter;
 import lombok.AllArgsConstructor;
 
@@ -13,9 +13,8 @@ public class DriverCandidate {
 
     private static final String[] FIRST = {"Adam","Piotr","Marek","Krzysztof","Paweł","Jakub","Łukasz","Tomasz","Mateusz","Szymon"};
     private static final String[] LAST = {"Nowak","Kowalski","Wiśniewski","Wójcik","Kowalczyk","Kamiński","Lewandowski","Zieliński"};
-    private static final Random rng = new Random();
 
-    public static DriverCandidate randomCandidate() {
+    public static DriverCandidate randomCandidate(RandomGenerator rng) {
         String name = FIRST[rng.nextInt(FIRST.length)] + " " + LAST[rng.nextInt(LAST.length)];
         int skill = 30 + rng.nextInt(61); 
         double cost = 150 + rng.nextInt(301); 
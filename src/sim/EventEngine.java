@@ -0,0 +1,250 @@
+package com.transport.sim;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Catalogue of random events and the sampler that decides which of them fire
+ * each turn. The cost of a turn grows with the events that fire, not with the
+ * size of the fleet or the number of rules:
+ * <ul>
+ * <li>company rules have an expected number of occurrences per turn; the count
+ * for the turn is drawn once for all of them and each occurrence picks its
+ * rule from an alias table;</li>
+ * <li>vehicle rules have a chance per turn that depends on condition; the hit
+ * vehicles are found by walking the condition groups of the {@link Fleet} with
+ * a single exponential draw per hit, so groups nobody is hit in cost no draws;</li>
+ * <li>driver rules have the same chance for every driver and skip through the
+ * roster the same way.</li>
+ * </ul>
+ * Rules are registered before the game runs. Sampling only reads the engine,
+ * so forks of a game share it.
+ */
+public class EventEngine {
+
+    /** An event hitting the company as a whole. */
+    public interface CompanyRule {
+        void fire(Company company, RandomGenerator rng, TurnEvents events);
+    }
+
+    /** An event hitting a single vehicle. */
+    public interface VehicleRule {
+        /** Chance per turn for a vehicle in {@code condition}, 0-1. */
+        double hazard(int condition);
+
+        void fire(Company company, Vehicle v, RandomGenerator rng, TurnEvents events);
+    }
+
+    /** An event hitting a single driver. */
+    public interface DriverRule {
+        void fire(Company company, Driver d, RandomGenerator rng, TurnEvents events);
+    }
+
+    private final List<CompanyRule> companyRules = new ArrayList<>();
+    private double[] companyRates = new double[0];
+    private double expNegTotalRate = 1; // e^-(sum of rates), for the Poisson draw
+    private double[] aliasProbability = new double[0];
+    private int[] alias = new int[0];
+
+    private final List<VehicleRule> vehicleRules = new ArrayList<>();
+    private final List<double[]> vehicleLogMiss = new ArrayList<>(); // per rule, ln(1 - hazard) by condition
+
+    private final List<DriverRule> driverRules = new ArrayList<>();
+    private final List<Double> driverLogMiss = new ArrayList<>();
+
+    /** @param perTurn expected occurrences per turn */
+    public EventEngine addCompanyRule(double perTurn, CompanyRule rule) {
+        if (perTurn <= 0) throw new IllegalArgumentException("Rate must be positive: " + perTurn);
+        companyRules.add(rule);
+        companyRates = Arrays.copyOf(companyRates, companyRates.length + 1);
+        companyRates[companyRates.length - 1] = perTurn;
+        buildAliasTable();
+        return this;
+    }
+
+    public EventEngine addVehicleRule(VehicleRule rule) {
+        double[] logMiss = new double[Fleet.MAX_CONDITION + 1];
+        for (int c = 0; c <= Fleet.MAX_CONDITION; c++) logMiss[c] = logMiss(rule.hazard(c));
+        vehicleRules.add(rule);
+        vehicleLogMiss.add(logMiss);
+        return this;
+    }
+
+    /** @param perTurn chance per driver per turn */
+    public EventEngine addDriverRule(double perTurn, DriverRule rule) {
+        driverRules.add(rule);
+        driverLogMiss.add(logMiss(perTurn));
+        return this;
+    }
+
+    // 0 for "never", -infinity for "always"
+    private static double logMiss(double hazard) {
+        if (hazard < 0 || hazard > 1) throw new IllegalArgumentException("Hazard must be within 0-1: " + hazard);
+        return Math.log1p(-hazard);
+    }
+
+    // Vose's alias method over the company rates
+    private void buildAliasTable() {
+        int n = companyRates.length;
+        double total = 0;
+        for (double r : companyRates) total += r;
+        expNegTotalRate = Math.exp(-total);
+        aliasProbability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n], large = new int[n];
+        int ns = 0, nl = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = companyRates[i] * n / total;
+            if (scaled[i] < 1) small[ns++] = i;
+            else large[nl++] = i;
+        }
+        while (ns > 0 && nl > 0) {
+            int s = small[--ns], l = large[--nl];
+            aliasProbability[s] = scaled[s];
+            alias[s] = l;
+            scaled[l] += scaled[s] - 1;
+            if (scaled[l] < 1) small[ns++] = l;
+            else large[nl++] = l;
+        }
+        while (nl > 0) aliasProbability[large[--nl]] = 1;
+        while (ns > 0) aliasProbability[small[--ns]] = 1; // rounding leftovers
+    }
+
+    /** Samples and fires this turn's events. */
+    public void run(Company company, RandomGenerator rng, TurnEvents events) {
+        for (int k = occurrences(rng); k > 0; k--) companyRules.get(pickCompanyRule(rng)).fire(company, rng, events);
+
+        Fleet fleet = company.fleet();
+        for (int r = 0; r < vehicleRules.size(); r++) {
+            double[] logMiss = vehicleLogMiss.get(r);
+            int[] hit = null;
+            int hits = 0;
+            // exposure left before the next hit; each vehicle in group c uses up -logMiss[c] of it
+            double exposure = exposure(rng);
+            for (int c = 0; c <= Fleet.MAX_CONDITION; c++) {
+                int n = fleet.countWithCondition(c);
+                double rate = -logMiss[c];
+                if (n == 0 || rate == 0) continue;
+                for (int i = 0; i < n; ) {
+                    double k = Math.floor(exposure / rate);
+                    if (k >= n - i) {
+                        exposure -= (n - i) * rate;
+                        break;
+                    }
+                    i += (int) k;
+                    if (hit == null) hit = new int[4];
+                    else if (hits == hit.length) hit = Arrays.copyOf(hit, hits * 2);
+                    hit[hits++] = fleet.slotWithCondition(c, i++);
+                    exposure = exposure(rng);
+                }
+            }
+            if (hits == 0) continue;
+            // fired after sampling, in fleet order, since firing may move vehicles between groups
+            Arrays.sort(hit, 0, hits);
+            List<Vehicle> vehicles = new ArrayList<>(hits);
+            for (int i = 0; i < hits; i++) vehicles.add(fleet.handle(hit[i]));
+            for (Vehicle v : vehicles) vehicleRules.get(r).fire(company, v, rng, events);
+        }
+
+        List<Driver> drivers = company.getDrivers();
+        for (int r = 0; r < driverRules.size(); r++) {
+            double logMiss = driverLogMiss.get(r);
+            List<Driver> hit = null;
+            for (long i = skip(logMiss, rng); i < drivers.size(); i += 1L + skip(logMiss, rng)) {
+                if (hit == null) hit = new ArrayList<>();
+                hit.add(drivers.get((int) i));
+            }
+            if (hit != null) for (Driver d : hit) driverRules.get(r).fire(company, d, rng, events);
+        }
+    }
+
+    // Poisson count of company events, by multiplying uniforms (few events per turn)
+    private int occurrences(RandomGenerator rng) {
+        if (companyRules.isEmpty()) return 0;
+        int k = 0;
+        for (double p = rng.nextDouble(); p > expNegTotalRate; p *= rng.nextDouble()) k++;
+        return k;
+    }
+
+    private int pickCompanyRule(RandomGenerator rng) {
+        int i = rng.nextInt(alias.length);
+        return rng.nextDouble() < aliasProbability[i] ? i : alias[i];
+    }
+
+    // Standard exponential; a vehicle passed over with hazard h uses up -ln(1 - h) of it
+    private static double exposure(RandomGenerator rng) {
+        return -Math.log(1 - rng.nextDouble());
+    }
+
+    // Entities passed over before the next hit, geometric with the given ln(1 - hazard)
+    private static int skip(double logMiss, RandomGenerator rng) {
+        if (logMiss == 0) return Integer.MAX_VALUE;
+        if (logMiss == Double.NEGATIVE_INFINITY) return 0;
+        double k = Math.floor(Math.log(1 - rng.nextDouble()) / logMiss);
+        return k >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) k;
+    }
+
+    /** The game's own catalogue: collisions, breakdowns, fuel shocks, sick drivers, road closures and customer bonuses. */
+    public static EventEngine standard(GameSettings settings) {
+        double maintenanceMult = settings.getDifficulty().getMaintenanceCostMultiplier();
+        return new EventEngine()
+                .addCompanyRule(0.05, (company, rng, events) -> {
+                    Vehicle v = company.getRandomVehicle();
+                    if (v == null) return;
+                    events.add(TurnEventType.COLLISION, v.getName(), 0);
+                    v.damage(20);
+                    double suddenRepair = 500 * maintenanceMult;
+                    if (company.getCash() >= suddenRepair) {
+                        company.addCash(-suddenRepair);
+                        v.repair(10);
+                        events.add(TurnEventType.ROADSIDE_ASSISTANCE, suddenRepair);
+                    }
+                })
+                .addCompanyRule(0.02, (company, rng, events) -> {
+                    double price = company.getFuelPrice() * (1.15 + rng.nextDouble() * 0.25);
+                    company.setFuelPrice(price);
+                    events.add(TurnEventType.FUEL_SHOCK, price);
+                })
+                .addCompanyRule(0.03, (company, rng, events) -> {
+                    List<String> cities = RoadNetwork.poland().getDestinations();
+                    String city = cities.get(rng.nextInt(cities.size()));
+                    Collection<Job> delayed = company.getActiveJobsThrough(city);
+                    for (Job j : delayed) company.delayJob(j, 1);
+                    events.add(TurnEventType.ROAD_CLOSED, city, delayed.size());
+                })
+                .addCompanyRule(0.02, (company, rng, events) -> {
+                    if (company.getReputation() <= 0) return;
+                    double bonus = (250 + rng.nextDouble() * 750) * (1 + Math.min(company.getReputation(), 100) / 100);
+                    company.addCash(bonus);
+                    events.add(TurnEventType.CUSTOMER_BONUS, bonus);
+                })
+                .addVehicleRule(new VehicleRule() {
+                    @Override
+                    public double hazard(int condition) {
+                        double wear = (Fleet.MAX_CONDITION - condition) / (double) Fleet.MAX_CONDITION;
+                        return 0.001 + 0.02 * wear * wear;
+                    }
+
+                    @Override
+                    public void fire(Company company, Vehicle v, RandomGenerator rng, TurnEvents events) {
+                        double towing = 300 * maintenanceMult;
+                        company.addCash(-towing);
+                        v.damage(10);
+                        Job running = company.getActiveJob(v);
+                        if (running != null) company.delayJob(running, 1);
+                        events.add(TurnEventType.BREAKDOWN, v.getName(), towing);
+                    }
+                })
+                .addDriverRule(0.01, (company, d, rng, events) -> {
+                    double standIn = d.getSalary() * 0.5;
+                    company.addCash(-standIn);
+                    Job running = company.getActiveJob(d);
+                    if (running != null) company.delayJob(running, 1);
+                    events.add(TurnEventType.DRIVER_SICK, d.getName(), standIn);
+                });
+    }
+}
@@ -0,0 +1,321 @@
+package com.transport.sim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Column store for a company's vehicles: one primitive array per field,
+ * indexed by slot, so per-turn passes (maintenance, valuation) stream through
+ * flat arrays instead of chasing one object per vehicle. A {@link Vehicle} is
+ * only a handle onto a slot and is created the first time something asks for
+ * it. Slots follow fleet order; removing a vehicle shifts the ones after it.
+ * <p>
+ * The store also keeps the set of vehicles due for maintenance. Every change
+ * to condition or mileage goes through a mutator here, which re-checks that
+ * one vehicle, so the maintenance pass visits only the vehicles that are due.
+ * The same mutators keep the condition-weighted fleet value as a running total
+ * and the vehicles grouped by condition, for hazards that depend on it.
+ * <p>
+ * A store can be forked copy-on-write: the fork and its parent read the same
+ * arrays until one of them writes, and the writer copies just the columns it
+ * needs, so a fork costs little more than its handle array. A store that keeps
+ * being written, such as the live game's, is copied instead, so it keeps its
+ * own arrays and the copy is what gets forked.
+ */
+final class Fleet {
+    static final int MAINTENANCE_INTERVAL_KM = 500;
+    static final int MAX_CONDITION = 100;
+
+    final Company owner; // null for the one-slot store of a vehicle outside any company
+    private int size;
+    private String[] name;
+    private double[] value;
+    private int[] condition;            // 0-100
+    private int[] kmSinceMaintenance;
+    private double[] fuelConsumptionPerKm;
+    private Vehicle[] handle;           // created on demand
+    private int[] duePosition;          // index in 'due' + 1, 0 if not due
+    private int[] due = new int[16];    // slots due for maintenance, unordered
+    private int dueCount;
+    private double weightedValue;       // sum of value * condition, exact for whole-number prices
+    private int[][] byCondition = new int[MAX_CONDITION + 1][]; // slots per condition, unordered
+    private int[] conditionCount = new int[MAX_CONDITION + 1];
+    private int[] conditionPosition;    // index of the slot in its condition group
+    private boolean sharedSpecs;        // name, value and fuel arrays also used by a fork or its parent
+    private boolean sharedState;        // condition, km and due arrays likewise
+    private final List<Vehicle> view = new View();
+
+    Fleet(Company owner, int capacity) {
+        this.owner = owner;
+        capacity = Math.max(capacity, 1);
+        name = new String[capacity];
+        value = new double[capacity];
+        condition = new int[capacity];
+        kmSinceMaintenance = new int[capacity];
+        fuelConsumptionPerKm = new double[capacity];
+        handle = new Vehicle[capacity];
+        duePosition = new int[capacity];
+        conditionPosition = new int[capacity];
+    }
+
+    private Fleet(Company owner, Fleet from) {
+        this.owner = owner;
+        size = from.size;
+        name = from.name;
+        value = from.value;
+        condition = from.condition;
+        kmSinceMaintenance = from.kmSinceMaintenance;
+        fuelConsumptionPerKm = from.fuelConsumptionPerKm;
+        duePosition = from.duePosition;
+        due = from.due;
+        dueCount = from.dueCount;
+        weightedValue = from.weightedValue;
+        byCondition = from.byCondition;
+        conditionCount = from.conditionCount;
+        conditionPosition = from.conditionPosition;
+        handle = new Vehicle[name.length];
+        sharedSpecs = sharedState = true;
+    }
+
+    /**
+     * Copy-on-write copy of this store for {@code owner}, with handles of its own.
+     * Only reads this store once it is shared, so a store nobody writes to any
+     * more can be forked from several threads.
+     */
+    Fleet fork(Company owner) {
+        if (!sharedSpecs) sharedSpecs = true;
+        if (!sharedState) sharedState = true;
+        return new Fleet(owner, this);
+    }
+
+    /**
+     * Copy of this store for {@code owner} with columns of its own, taken up
+     * front so this store never has to copy them on its next write. The copy
+     * counts as shared, so like a fork it can be forked from several threads.
+     */
+    Fleet copy(Company owner) {
+        Fleet f = new Fleet(owner, this);
+        f.ownAll();
+        f.sharedSpecs = f.sharedState = true;
+        return f;
+    }
+
+    private void ownState() {
+        if (!sharedState) return;
+        condition = condition.clone();
+        kmSinceMaintenance = kmSinceMaintenance.clone();
+        duePosition = duePosition.clone();
+        due = due.clone();
+        byCondition = byCondition.clone();
+        for (int c = 0; c <= MAX_CONDITION; c++) if (byCondition[c] != null) byCondition[c] = byCondition[c].clone();
+        conditionCount = conditionCount.clone();
+        conditionPosition = conditionPosition.clone();
+        sharedState = false;
+    }
+
+    private void ownAll() {
+        ownState();
+        if (!sharedSpecs) return;
+        name = name.clone();
+        value = value.clone();
+        fuelConsumptionPerKm = fuelConsumptionPerKm.clone();
+        sharedSpecs = false;
+    }
+
+    int size() { return size; }
+
+    /** Appends a vehicle without creating its handle. @return its slot */
+    int add(String name, double value, int condition, double fuelConsumptionPerKm, int kmSinceMaintenance) {
+        ownAll();
+        if (size == handle.length) grow();
+        int s = size++;
+        this.name[s] = name;
+        this.value[s] = value;
+        this.condition[s] = condition;
+        this.fuelConsumptionPerKm[s] = fuelConsumptionPerKm;
+        this.kmSinceMaintenance[s] = kmSinceMaintenance;
+        weightedValue += value * condition;
+        addToCondition(s);
+        updateDue(s);
+        return s;
+    }
+
+    private void grow() {
+        int capacity = handle.length + (handle.length >> 1) + 1;
+        name = Arrays.copyOf(name, capacity);
+        value = Arrays.copyOf(value, capacity);
+        condition = Arrays.copyOf(condition, capacity);
+        kmSinceMaintenance = Arrays.copyOf(kmSinceMaintenance, capacity);
+        fuelConsumptionPerKm = Arrays.copyOf(fuelConsumptionPerKm, capacity);
+        handle = Arrays.copyOf(handle, capacity);
+        duePosition = Arrays.copyOf(duePosition, capacity);
+        conditionPosition = Arrays.copyOf(conditionPosition, capacity);
+    }
+
+    Vehicle handle(int slot) {
+        Vehicle v = handle[slot];
+        if (v == null) handle[slot] = v = new Vehicle(this, slot);
+        return v;
+    }
+
+    void bind(Vehicle v, int slot) {
+        handle[slot] = v;
+        v.store = this;
+        v.slot = slot;
+    }
+
+    /** Slot of {@code v} in this store, -1 if it lives elsewhere. */
+    int indexOf(Vehicle v) { return v != null && v.store == this ? v.slot : -1; }
+
+    /** Moves a vehicle from its current store to the end of this one, keeping its handle. */
+    void adopt(Vehicle v) {
+        Fleet from = v.store;
+        int s = v.slot;
+        int slot = add(from.name[s], from.value[s], from.condition[s], from.fuelConsumptionPerKm[s], from.kmSinceMaintenance[s]);
+        from.remove(s);
+        bind(v, slot);
+    }
+
+    /** Takes a vehicle out of this store; its handle keeps working on a store of its own. */
+    void release(Vehicle v) {
+        int s = v.slot;
+        Fleet loose = new Fleet(null, 1);
+        loose.add(name[s], value[s], condition[s], fuelConsumptionPerKm[s], kmSinceMaintenance[s]);
+        remove(s);
+        loose.bind(v, 0);
+    }
+
+    private void remove(int s) {
+        ownAll();
+        weightedValue -= value[s] * condition[s];
+        if (duePosition[s] != 0) removeDue(s);
+        for (int i = 0; i < dueCount; i++) if (due[i] > s) due[i]--;
+        removeFromCondition(s);
+        for (int c = 0; c <= MAX_CONDITION; c++) {
+            int[] group = byCondition[c];
+            for (int i = 0; i < conditionCount[c]; i++) if (group[i] > s) group[i]--;
+        }
+        int tail = size - s - 1;
+        System.arraycopy(name, s + 1, name, s, tail);
+        System.arraycopy(value, s + 1, value, s, tail);
+        System.arraycopy(condition, s + 1, condition, s, tail);
+        System.arraycopy(kmSinceMaintenance, s + 1, kmSinceMaintenance, s, tail);
+        System.arraycopy(fuelConsumptionPerKm, s + 1, fuelConsumptionPerKm, s, tail);
+        System.arraycopy(handle, s + 1, handle, s, tail);
+        System.arraycopy(duePosition, s + 1, duePosition, s, tail);
+        System.arraycopy(conditionPosition, s + 1, conditionPosition, s, tail);
+        size--;
+        name[size] = null;
+        handle[size] = null;
+        duePosition[size] = 0;
+        if (size == 0) weightedValue = 0; // drop any rounding left by fractional prices
+        for (int i = s; i < size; i++) if (handle[i] != null) handle[i].slot = i;
+    }
+
+    String name(int s) { return name[s]; }
+    double value(int s) { return value[s]; }
+    int condition(int s) { return condition[s]; }
+    int kmSinceMaintenance(int s) { return kmSinceMaintenance[s]; }
+    double fuelConsumptionPerKm(int s) { return fuelConsumptionPerKm[s]; }
+
+    void repair(int s, int amount) { setCondition(s, Math.min(100, condition[s] + amount)); }
+    void damage(int s, int amount) { setCondition(s, Math.max(0, condition[s] - amount)); }
+
+    private void setCondition(int s, int c) {
+        ownState();
+        weightedValue += value[s] * (c - condition[s]);
+        if (c != condition[s]) {
+            removeFromCondition(s);
+            condition[s] = c;
+            addToCondition(s);
+        }
+        updateDue(s);
+    }
+
+    void addKm(int s, int km) {
+        ownState();
+        kmSinceMaintenance[s] += km;
+        updateDue(s);
+    }
+
+    boolean isMaintenanceDue(int s) {
+        return kmSinceMaintenance[s] >= MAINTENANCE_INTERVAL_KM || condition[s] < 50;
+    }
+
+    double maintenanceCost(int s) { return 200 + (100 * (100 - condition[s]) / 100.0); }
+
+    void performMaintenance(int s) {
+        ownState();
+        kmSinceMaintenance[s] = 0;
+        repair(s, 20);
+    }
+
+    /** Slots of the vehicles due for maintenance, in fleet order. */
+    int[] dueSlots() {
+        int[] out = Arrays.copyOf(due, dueCount);
+        Arrays.sort(out);
+        return out;
+    }
+
+    private void updateDue(int s) {
+        boolean isDue = isMaintenanceDue(s);
+        if (isDue == (duePosition[s] != 0)) return;
+        if (!isDue) {
+            removeDue(s);
+            return;
+        }
+        if (dueCount == due.length) due = Arrays.copyOf(due, dueCount * 2);
+        due[dueCount++] = s;
+        duePosition[s] = dueCount;
+    }
+
+    private void removeDue(int s) {
+        int i = duePosition[s] - 1, last = due[--dueCount];
+        due[i] = last;
+        duePosition[last] = i + 1;
+        duePosition[s] = 0;
+    }
+
+    // Out-of-range conditions from hand-made vehicles share the nearest group
+    private static int group(int condition) { return Math.max(0, Math.min(MAX_CONDITION, condition)); }
+
+    private void addToCondition(int s) {
+        int c = group(condition[s]);
+        int[] group = byCondition[c];
+        if (group == null) byCondition[c] = group = new int[4];
+        else if (conditionCount[c] == group.length) byCondition[c] = group = Arrays.copyOf(group, group.length * 2);
+        conditionPosition[s] = conditionCount[c];
+        group[conditionCount[c]++] = s;
+    }
+
+    private void removeFromCondition(int s) {
+        int c = group(condition[s]), i = conditionPosition[s], last = byCondition[c][--conditionCount[c]];
+        byCondition[c][i] = last;
+        conditionPosition[last] = i;
+    }
+
+    /** Number of vehicles in {@code condition}. */
+    int countWithCondition(int condition) { return conditionCount[condition]; }
+
+    /** The {@code i}-th vehicle in {@code condition}, in no particular order. */
+    int slotWithCondition(int condition, int i) { return byCondition[condition][i]; }
+
+    /** Value of the fleet scaled by the condition of each vehicle. */
+    double assetValue() { return weightedValue / 100.0; }
+
+    /** Read-only list of handles in fleet order. */
+    List<Vehicle> asList() { return view; }
+
+    private final class View extends AbstractList<Vehicle> implements RandomAccess {
+        @Override public Vehicle get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+            return handle(i);
+        }
+        @Override public int size() { return size; }
+        @Override public int indexOf(Object o) { return o instanceof Vehicle ? Fleet.this.indexOf((Vehicle) o) : -1; }
+        @Override public int lastIndexOf(Object o) { return indexOf(o); }
+        @Override public boolean contains(Object o) { return indexOf(o) >= 0; }
+    }
+}
@@ -0,0 +1,40 @@
+package com.transport.sim;
+
+import lombok.Getter;
+
+/**
+ * Outcome of a {@link Forecaster} run: over {@code forks} simulated futures of
+ * the game at {@code fromTurn}, the share that went bankrupt within each number
+ * of turns ahead and the spread of cash at that point. A fork that went
+ * bankrupt keeps its last cash for the remaining turns. Immutable.
+ */
+public final class Forecast {
+    @Getter private final int fromTurn;
+    @Getter private final int horizon;
+    @Getter private final int forks;
+    @Getter private final double bankruptcyLimit;
+    private final double[] bankruptcy; // cumulative share, index = turns ahead - 1
+    private final double[] low, median, high;
+
+    Forecast(int fromTurn, int forks, double bankruptcyLimit, double[] bankruptcy, double[] low, double[] median, double[] high) {
+        this.fromTurn = fromTurn;
+        this.horizon = bankruptcy.length;
+        this.forks = forks;
+        this.bankruptcyLimit = bankruptcyLimit;
+        this.bankruptcy = bankruptcy;
+        this.low = low;
+        this.median = median;
+        this.high = high;
+    }
+
+    /** Probability of crossing the bankruptcy limit within {@code turns} turns, 1..horizon. */
+    public double bankruptcyWithin(int turns) { return bankruptcy[turns - 1]; }
+
+    /** 10th percentile of cash {@code turns} turns ahead. */
+    public double cashLow(int turns) { return low[turns - 1]; }
+
+    public double cashMedian(int turns) { return median[turns - 1]; }
+
+    /** 90th percentile of cash {@code turns} turns ahead. */
+    public double cashHigh(int turns) { return high[turns - 1]; }
+}
@@ -0,0 +1,124 @@
+package com.transport.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Monte Carlo look-ahead for bankruptcy. From the current game it plays
+ * {@code forks} futures of {@code horizon} turns, each a {@link Simulator#fork}
+ * with its own seed, spread over a pool of low-priority threads. The forks
+ * dispatch crews automatically every turn and buy nothing; the player's
+ * decisions are not modelled.
+ * <p>
+ * {@link #afterTurn} is called by whoever runs the turns. It takes one
+ * {@link Simulator#copy} of the game on that thread, which every worker then
+ * forks, so the game itself is only read while the turn loop is between turns
+ * and keeps writing its own columns in place afterwards. If the previous
+ * forecast is still running, the turn is skipped rather than queued.
+ */
+public class Forecaster {
+    private static final long SEED_MIX = 0x9E3779B97F4A7C15L;
+
+    private final int forks, horizon;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Forecast latest;
+    private volatile Consumer<Forecast> onForecast = f -> {};
+
+    public Forecaster() { this(200, 20); }
+
+    public Forecaster(int forks, int horizon) {
+        this.forks = forks;
+        this.horizon = horizon;
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "forecast");
+            t.setDaemon(true);
+            t.setPriority(Thread.MIN_PRIORITY);
+            return t;
+        });
+    }
+
+    /** Called on a forecast thread with every finished forecast. */
+    public void setOnForecast(Consumer<Forecast> onForecast) { this.onForecast = onForecast; }
+
+    /** Last finished forecast, null before the first one. */
+    public Forecast getLatest() { return latest; }
+
+    /** Starts a forecast from the current turn unless one is still running. Returns straight away. */
+    public void afterTurn(Simulator sim) {
+        if (sim.isGameOver() || !running.compareAndSet(false, true)) return;
+        start(sim).whenComplete((f, e) -> {
+            running.set(false);
+            if (f == null) return;
+            latest = f;
+            onForecast.accept(f);
+        });
+    }
+
+    /** Runs a forecast and waits for it, for callers without a UI. */
+    public Forecast forecast(Simulator sim) { return start(sim).join(); }
+
+    private CompletableFuture<Forecast> start(Simulator sim) {
+        int fromTurn = sim.getTurn();
+        SimRandom seeds = new SimRandom(sim.getSeed() ^ fromTurn * SEED_MIX);
+        Simulator base = sim.copy(seeds.nextLong());
+        double[][] cash = new double[forks][];
+        int[] bankrupt = new int[forks];
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[forks];
+        for (int i = 0; i < forks; i++) {
+            int f = i;
+            long seed = seeds.nextLong();
+            tasks[i] = CompletableFuture.runAsync(() -> {
+                cash[f] = new double[horizon];
+                bankrupt[f] = play(base.fork(seed), cash[f]);
+            }, executor);
+        }
+        double limit = sim.getSettings().getDifficulty().getBankruptcyLimit();
+        return CompletableFuture.allOf(tasks).thenApply(v -> summarize(fromTurn, limit, cash, bankrupt));
+    }
+
+    // Fills the cash after each turn ahead; returns the turns ahead it went bankrupt on, 0 if it did not
+    private int play(Simulator fork, double[] cash) {
+        fork.getEvents().setEnabled(false);
+        int bankruptAt = 0;
+        for (int t = 0; t < horizon; t++) {
+            if (bankruptAt == 0) {
+                fork.autoDispatch();
+                fork.runTurn();
+                if (fork.isGameOver()) bankruptAt = t + 1;
+            }
+            cash[t] = fork.getCompany().getCash();
+        }
+        return bankruptAt;
+    }
+
+    private Forecast summarize(int fromTurn, double limit, double[][] cash, int[] bankrupt) {
+        double[] risk = new double[horizon], low = new double[horizon], median = new double[horizon], high = new double[horizon];
+        double[] column = new double[forks];
+        for (int t = 0; t < horizon; t++) {
+            int failed = 0;
+            for (int f = 0; f < forks; f++) {
+                column[f] = cash[f][t];
+                if (bankrupt[f] != 0 && bankrupt[f] <= t + 1) failed++;
+            }
+            Arrays.sort(column);
+            risk[t] = failed / (double) forks;
+            low[t] = percentile(column, 0.1);
+            median[t] = percentile(column, 0.5);
+            high[t] = percentile(column, 0.9);
+        }
+        return new Forecast(fromTurn, forks, limit, risk, low, median, high);
+    }
+
+    private static double percentile(double[] sorted, double p) {
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))];
+    }
+
+    public void shutdown() { executor.shutdownNow(); }
+}
@@ -0,0 +1,203 @@
+package com.transport.sim;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Immutable picture of a game between two writes, taken on the simulation
+ * thread and handed to the UI, which reads it without locking. Rows keep a
+ * reference to the entity they were copied from; it is only used to aim a
+ * {@link CommandQueue} command back at it and is never read off the
+ * simulation thread.
+ */
+@Getter
+public final class GameSnapshot {
+    private final int turn;
+    private final boolean gameOver;
+    private final double cash;
+    private final double reputation;
+    private final double fuelPrice;
+    private final double fleetAssetValue;
+    private final List<VehicleInfo> vehicles;
+    private final List<DriverInfo> drivers;
+    private final List<JobInfo> jobs;            // in transit first, then the market
+    private final List<JobInfo> completedThisTurn;
+    private final List<DriverCandidate> candidates;
+    private final List<VehicleOffer> vehicleMarket;
+
+    private GameSnapshot(Simulator sim, GameSnapshot previous) {
+        Company c = sim.getCompany();
+        turn = sim.getTurn();
+        gameOver = sim.isGameOver();
+        cash = c.getCash();
+        reputation = c.getReputation();
+        fuelPrice = c.getFuelPrice();
+        fleetAssetValue = c.getFleetAssetValue();
+
+        List<Vehicle> fleet = c.getVehicles();
+        List<VehicleInfo> shownVehicles = previous == null ? List.of() : previous.vehicles;
+        VehicleInfo[] byIndex = new VehicleInfo[fleet.size()];
+        boolean reused = byIndex.length == shownVehicles.size();
+        for (int i = 0; i < byIndex.length; i++) {
+            Vehicle v = fleet.get(i);
+            Driver d = c.getDriverForVehicle(v);
+            boolean busy = c.isVehicleBusy(v);
+            VehicleInfo old = i < shownVehicles.size() ? shownVehicles.get(i) : null;
+            if (old != null && old.shows(v, d, busy)) {
+                byIndex[i] = old;
+            } else {
+                byIndex[i] = new VehicleInfo(v.getName(), v.getValue(), v.getCondition(), v.getKmSinceMaintenance(),
+                        v.getMaintenanceIntervalKm(), v.getFuelConsumptionPerKm(), busy, d == null ? null : d.getName(), v, d);
+                reused = false;
+            }
+        }
+        vehicles = reused ? shownVehicles : List.of(byIndex);
+
+        List<DriverInfo> shownDrivers = previous == null ? List.of() : previous.drivers;
+        List<DriverInfo> roster = new ArrayList<>(c.getDrivers().size());
+        reused = c.getDrivers().size() == shownDrivers.size();
+        for (Driver d : c.getDrivers()) {
+            int v = fleet.indexOf(d.getAssignedVehicle());
+            VehicleInfo vehicle = v < 0 ? null : byIndex[v];
+            boolean busy = c.isDriverBusy(d);
+            DriverInfo old = roster.size() < shownDrivers.size() ? shownDrivers.get(roster.size()) : null;
+            if (old != null && old.shows(d, vehicle, busy)) {
+                roster.add(old);
+            } else {
+                roster.add(new DriverInfo(d.getName(), d.getSkill(), d.getSalary(), vehicle, busy, d));
+                reused = false;
+            }
+        }
+        drivers = reused ? shownDrivers : Collections.unmodifiableList(roster);
+
+        jobs = jobInfos(c.getJobs(), previous == null ? List.of() : previous.jobs);
+        completedThisTurn = jobInfos(sim.getCompletedThisTurn(), List.of());
+        candidates = List.copyOf(c.getCandidates());
+        vehicleMarket = List.copyOf(c.getVehicleMarket());
+    }
+
+    /** Copies the current state; call on the thread that runs the simulator. */
+    public static GameSnapshot capture(Simulator sim) { return new GameSnapshot(sim, null); }
+
+    /**
+     * Like {@link #capture(Simulator)}, but keeps the rows of {@code previous}
+     * that still describe the same entity unchanged, so a turn only allocates
+     * rows for what it changed and the UI can tell them apart by identity.
+     */
+    public static GameSnapshot capture(Simulator sim, GameSnapshot previous) { return new GameSnapshot(sim, previous); }
+
+    // Rows are matched by position, which holds between turns unless something was added or removed
+    private static List<JobInfo> jobInfos(List<Job> source, List<JobInfo> shown) {
+        List<JobInfo> out = new ArrayList<>(source.size());
+        boolean reused = source.size() == shown.size();
+        for (Job j : source) {
+            JobInfo old = out.size() < shown.size() ? shown.get(out.size()) : null;
+            if (old != null && old.shows(j)) {
+                out.add(old);
+            } else {
+                Driver d = j.getAssignedDriver();
+                out.add(new JobInfo(j.getTitle(), j.getReward(), j.getRouteLength(), j.getRoute(), j.getMinSkillRequired(),
+                        j.isAssigned(), d == null ? null : d.getName(), j.getTurnsRemaining(), j.getResult(), j));
+                reused = false;
+            }
+        }
+        return reused ? shown : Collections.unmodifiableList(out);
+    }
+
+    /** Vehicles {@code d} may be given: those without a driver and the one they already have. */
+    public List<VehicleInfo> getVehiclesFor(DriverInfo d) {
+        List<VehicleInfo> out = new ArrayList<>();
+        for (VehicleInfo v : vehicles) if (v.driver == null || v.driver == d.driver) out.add(v);
+        return out;
+    }
+
+    /** Drivers with a vehicle and no job, the ones a job can be started with. */
+    public List<DriverInfo> getIdleCrews() {
+        List<DriverInfo> out = new ArrayList<>();
+        for (DriverInfo d : drivers) if (d.hasVehicle() && !d.isBusy()) out.add(d);
+        return out;
+    }
+
+    @Value
+    public static class VehicleInfo {
+        String name;
+        double value;
+        int condition;
+        int kmSinceMaintenance;
+        int maintenanceIntervalKm;
+        double fuelConsumptionPerKm;
+        boolean busy;
+        String driverName;              // null if nobody drives it
+        @Getter(AccessLevel.NONE) Vehicle vehicle;
+        @Getter(AccessLevel.NONE) Driver driver;
+
+        /** Whether both rows describe the same vehicle, possibly at different times. */
+        public boolean isSame(VehicleInfo other) { return other != null && other.vehicle == vehicle; }
+
+        Vehicle vehicle() { return vehicle; }
+
+        // Whether this row still matches v as it is now
+        boolean shows(Vehicle v, Driver d, boolean busy) {
+            return vehicle == v && driver == d && this.busy == busy && condition == v.getCondition()
+                    && kmSinceMaintenance == v.getKmSinceMaintenance() && value == v.getValue()
+                    && maintenanceIntervalKm == v.getMaintenanceIntervalKm() && fuelConsumptionPerKm == v.getFuelConsumptionPerKm()
+                    && name.equals(v.getName()) && Objects.equals(driverName, d == null ? null : d.getName());
+        }
+    }
+
+    @Value
+    public static class DriverInfo {
+        String name;
+        int skill;
+        double salary;
+        VehicleInfo vehicle;            // null if unassigned
+        boolean busy;
+        @Getter(AccessLevel.NONE) Driver driver;
+
+        public boolean hasVehicle() { return vehicle != null; }
+
+        /** Whether both rows describe the same driver, possibly at different times. */
+        public boolean isSame(DriverInfo other) { return other != null && other.driver == driver; }
+
+        Driver driver() { return driver; }
+
+        // Whether this row still matches d as it is now; vehicle rows are compared by identity
+        boolean shows(Driver d, VehicleInfo vehicle, boolean busy) {
+            return driver == d && this.vehicle == vehicle && this.busy == busy && skill == d.getSkill()
+                    && salary == d.getSalary() && name.equals(d.getName());
+        }
+    }
+
+    @Value
+    public static class JobInfo {
+        String title;
+        double reward;
+        int routeLength;
+        Route route;                    // immutable, null for jobs from old saves
+        int minSkillRequired;
+        boolean assigned;
+        String driverName;
+        int turnsRemaining;
+        String result;
+        @Getter(AccessLevel.NONE) Job job;
+
+        /** Whether both rows describe the same job, possibly at different times. */
+        public boolean isSame(JobInfo other) { return other != null && other.job == job; }
+
+        Job job() { return job; }
+
+        // Whether this row still matches j as it is now
+        boolean shows(Job j) {
+            Driver d = j.getAssignedDriver();
+            return job == j && assigned == j.isAssigned() && turnsRemaining == j.getTurnsRemaining() && reward == j.getReward()
+                    && routeLength == j.getRouteLength() && route == j.getRoute() && minSkillRequired == j.getMinSkillRequired()
+                    && title.equals(j.getTitle()) && Objects.equals(result, j.getResult())
+                    && Objects.equals(driverName, d == null ? null : d.getName());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.transport.sim;
 
-import java.util.Random;
+import java.util.List;
+import java.util.random.RandomGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -8,16 +9,20 @@ public class Job {
     @Getter private String title;
     @Getter private double reward;
     @Getter private int routeLength;
+    @Getter private Route route; // null for jobs from saves that predate the road network
     @Getter private int minSkillRequired; // New field
     @Getter private double reputationGain; // New field
     @Setter private boolean assigned = false;
     @Getter private Driver assignedDriver;
     @Getter private Vehicle assignedVehicle;
-    @Getter private int turnsRemaining = 0;
-    @Setter private boolean completed = false;
-    @Getter @Setter private String result = "";
-
-    private static final Random RAND = new Random();
+    private int turnsRemaining = 0;
+    private boolean completed = false;
+    @Setter private String result = "";
+    private TurnEventType outcome; // JOB_SUCCEEDED or JOB_FAILED once processed
+    private double outcomeAmount;
+    Company owner; // set by Company.addJob, notified on assign and completion
+    int completionTurn; // absolute turn, maintained by CompletionScheduler
+    boolean queued;     // waiting in a CompletionScheduler, maintained by it
 
     public Job(String title, double reward, int routeLength, int minSkill) {
         this.title = title; 
@@ -28,6 +33,30 @@ public class Job {
         this.reputationGain = (reward / 2000.0) + (minSkill * 0.5);
     }
 
+    public Job(String title, double reward, Route route, int minSkill) {
+        this(title, reward, route.getLength(), minSkill);
+        this.route = route;
+    }
+
+    /** Copy of {@code from} for a forked company, crewed by that company's {@code d} and {@code v}. */
+    Job(Job from, Driver d, Vehicle v) {
+        title = from.title;
+        reward = from.reward;
+        routeLength = from.routeLength;
+        route = from.route;
+        minSkillRequired = from.minSkillRequired;
+        reputationGain = from.reputationGain;
+        assigned = from.assigned;
+        assignedDriver = d;
+        assignedVehicle = v;
+        turnsRemaining = from.turnsRemaining;
+        completed = from.completed;
+        result = from.result;
+        outcome = from.outcome;
+        outcomeAmount = from.outcomeAmount;
+        completionTurn = from.completionTurn;
+    }
+
     public boolean isAssigned() { return assigned; }
     
     public void assign(Driver d, Vehicle v) { 
@@ -35,30 +64,55 @@ public class Job {
         this.assignedVehicle = v; 
         this.assigned = true; 
         this.turnsRemaining = (int)Math.ceil(routeLength / 100.0); 
+        if (owner != null) owner.onJobAssigned(this);
+    }
+
+    public void setCompleted(boolean completed) {
+        boolean finished = completed && !this.completed;
+        this.completed = completed;
+        if (finished && owner != null) owner.onJobFinished(this);
     }
     
-    public void decrementTurnsRemaining() { if (turnsRemaining>0) turnsRemaining--; }
+    public int getTurnsRemaining() {
+        if (owner == null || !assigned || completed) return turnsRemaining;
+        return Math.max(0, completionTurn - owner.getCurrentTurn());
+    }
+
+    void setOutcome(TurnEventType outcome, double amount) {
+        this.outcome = outcome;
+        this.outcomeAmount = amount;
+    }
+
+    // Formatted on demand, the report view is the only reader
+    public String getResult() {
+        if (outcome == TurnEventType.JOB_SUCCEEDED) return String.format("Sukces (Zysk: %.2f)", outcomeAmount);
+        if (outcome == TurnEventType.JOB_FAILED) return String.format("Porażka (Kara: %.2f)", outcomeAmount);
+        return result;
+    }
+
+    int travelTurns() { return turnsRemaining; }
+
     public boolean isCompleted() { return completed; }
 
     // Constants for name generation...
     private static final String[] CARGO_TYPES = {"Ładunek", "Transport", "Dostawa", "Przewóz", "Spedycja"};
     private static final String[] GOODS = {"stali", "paliw", "części maszyn", "żywności", "leków"};
-    private static final String[] DESTINATIONS = {"Warszawa", "Kraków", "Gdańsk", "Poznań", "Wrocław"};
     private static final String[] URGENCY = {"", " – pilne", " – ekspres", " – priorytet"};
 
-    public static Job randomJob() {
-        String type = CARGO_TYPES[RAND.nextInt(CARGO_TYPES.length)];
-        String goods = GOODS[RAND.nextInt(GOODS.length)];
-        String dest = DESTINATIONS[RAND.nextInt(DESTINATIONS.length)];
-        String urgency = URGENCY[RAND.nextInt(URGENCY.length)];
+    public static Job randomJob(RandomGenerator rng) {
+        String type = CARGO_TYPES[rng.nextInt(CARGO_TYPES.length)];
+        String goods = GOODS[rng.nextInt(GOODS.length)];
+        RoadNetwork roads = RoadNetwork.poland();
+        List<String> destinations = roads.getDestinations();
+        String dest = destinations.get(rng.nextInt(destinations.size()));
+        String urgency = URGENCY[rng.nextInt(URGENCY.length)];
 
         String name = type + " " + goods + " do " + dest + urgency; 
-        int minSkill = RAND.nextInt(10) + 1;
+        int minSkill = rng.nextInt(10) + 1;
         
         // FIXED: Declare and calculate these variables once
-        double reward = (600 + RAND.nextDouble() * 10000) * (1 + (minSkill * 0.2));
-        int routeLength = 50 + RAND.nextInt(500);
+        double reward = (600 + rng.nextDouble() * 10000) * (1 + (minSkill * 0.2));
         
-        return new Job(name, reward, routeLength, minSkill);
+        return new Job(name, reward, roads.route(RoadNetwork.DEPOT, dest), minSkill);
     }
 }
@@ -0,0 +1,179 @@
+package com.transport.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Arrays;
+import lombok.Getter;
+
+/**
+ * Append-only record of a game: its settings and seed plus every player action
+ * and turn advance, in order. Together they are enough to rebuild the game
+ * exactly with {@link Replay}, so no state snapshots are needed. Entries are
+ * kept in primitive columns; consecutive turns collapse into one TURNS entry.
+ *
+ * A journal can be attached to a file, after which entries are appended to it
+ * as they are closed (flushed on every player action and on {@link #flush()}),
+ * so a crashed session leaves a replayable journal behind.
+ * File layout: magic, version, seed, company name, difficulty, then 9-byte
+ * entries (type, a, b) up to the end of the file.
+ */
+public class Journal {
+    public static final String LAST_GAME_FILE = "last-game.journal";
+
+    private static final int MAGIC = 0x544d4a52; // "TMJR"
+    private static final int VERSION = 1;
+    private static final int ENTRY_SIZE = 9;
+    private static final PlayerAction[] ACTIONS = PlayerAction.values();
+
+    @Getter private final GameSettings settings;
+    @Getter private final long seed;
+    private byte[] types = new byte[64];
+    private int[] as = new int[64];
+    private int[] bs = new int[64];
+    @Getter private int size;
+
+    private FileChannel sink;
+    private int written; // entries already in the file
+    private ByteBuffer out;
+
+    public Journal(GameSettings settings, long seed) {
+        this.settings = settings;
+        this.seed = seed;
+    }
+
+    public PlayerAction getType(int i) { return ACTIONS[types[i]]; }
+    public int getA(int i) { return as[i]; }
+    public int getB(int i) { return bs[i]; }
+
+    /** Total number of turns advanced. */
+    public int getTurns() {
+        int turns = 0;
+        for (int i = 0; i < size; i++) if (types[i] == PlayerAction.TURNS.ordinal()) turns += as[i];
+        return turns;
+    }
+
+    synchronized void recordTurn() {
+        if (size > written && types[size - 1] == PlayerAction.TURNS.ordinal()) as[size - 1]++;
+        else add(PlayerAction.TURNS, 1, 0);
+    }
+
+    synchronized void record(PlayerAction action, int a, int b) {
+        add(action, a, b);
+        flush();
+    }
+
+    private void add(PlayerAction action, int a, int b) {
+        if (size == types.length) {
+            int cap = size * 2;
+            types = Arrays.copyOf(types, cap);
+            as = Arrays.copyOf(as, cap);
+            bs = Arrays.copyOf(bs, cap);
+        }
+        types[size] = (byte) action.ordinal();
+        as[size] = a;
+        bs[size] = b;
+        size++;
+    }
+
+    /**
+     * Writes the whole journal so far to {@code file} and keeps appending to it.
+     */
+    public synchronized void attach(Path file) throws IOException {
+        close();
+        sink = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        byte[] name = settings.getCompanyName().getBytes(StandardCharsets.UTF_8);
+        byte[] difficulty = settings.getDifficulty().name().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(24 + name.length + difficulty.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(seed)
+                .putInt(name.length).put(name).putInt(difficulty.length).put(difficulty).flip();
+        while (header.hasRemaining()) sink.write(header);
+        out = ByteBuffer.allocate(ENTRY_SIZE * 512).order(ByteOrder.LITTLE_ENDIAN);
+        written = 0;
+        flush();
+    }
+
+    /** Appends all entries not yet in the attached file; a no-op when detached. */
+    public synchronized void flush() {
+        if (sink == null) return;
+        try {
+            while (written < size) {
+                out.put(types[written]).putInt(as[written]).putInt(bs[written]);
+                written++;
+                if (out.remaining() < ENTRY_SIZE) drain();
+            }
+            drain();
+        } catch (IOException e) {
+            closeQuietly(); // keep the game going, the journal stays complete in memory
+        }
+    }
+
+    public synchronized void close() {
+        if (sink == null) return;
+        flush();
+        closeQuietly();
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) sink.write(out);
+        out.clear();
+    }
+
+    private void closeQuietly() {
+        try {
+            if (sink != null) sink.close();
+        } catch (IOException ignored) {
+        } finally {
+            sink = null;
+        }
+    }
+
+    /** Reads a journal file; a torn entry at the end (crash while writing) is ignored. */
+    public static Journal read(Path file) throws IOException {
+        ByteBuffer in;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Journal too large: " + file);
+            in = ByteBuffer.allocate((int) ch.size()).order(ByteOrder.LITTLE_ENDIAN);
+            while (in.hasRemaining() && ch.read(in) >= 0) { }
+            in.flip();
+        }
+        if (in.remaining() < 24 || in.getInt() != MAGIC) throw new IOException("Not a journal: " + file);
+        int version = in.getInt();
+        if (version != VERSION) throw new IOException("Unsupported journal version " + version);
+        long seed = in.getLong();
+        String name = readString(in);
+        GameSettings.Difficulty difficulty = GameSettings.Difficulty.valueOf(readString(in));
+        Journal j = new Journal(new GameSettings(name, difficulty), seed);
+        while (in.remaining() >= ENTRY_SIZE) {
+            byte type = in.get();
+            if (type < 0 || type >= ACTIONS.length) throw new IOException("Corrupt journal entry " + j.size);
+            j.add(ACTIONS[type], in.getInt(), in.getInt());
+        }
+        return j;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] b = new byte[in.getInt()];
+        in.get(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    void writeState(StateBuffer out) {
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putInt(types[i]);
+            out.putInt(as[i]);
+            out.putInt(bs[i]);
+        }
+    }
+
+    void readState(StateBuffer in) {
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) add(ACTIONS[in.getInt()], in.getInt(), in.getInt());
+    }
+}
@@ -0,0 +1,42 @@
+package com.transport.sim;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The last SIZE latency samples of one measurement, written lock-free by any
+ * number of simulators. Percentiles are computed from a copy when asked for,
+ * which only happens when somebody reads the MXBean.
+ */
+final class LatencyWindow {
+    static final int SIZE = 4096; // must be a power of two
+
+    private final long[] samples = new long[SIZE];
+    private final AtomicLong count = new AtomicLong();
+
+    void record(long nanos) {
+        // concurrent writers may overwrite each other's slot, fine for statistics
+        samples[(int) (count.getAndIncrement() & (SIZE - 1))] = nanos;
+    }
+
+    long getCount() { return count.get(); }
+
+    /** Sorted copy of the samples currently in the window. */
+    long[] snapshot() {
+        int n = (int) Math.min(count.get(), SIZE);
+        long[] copy = Arrays.copyOf(samples, n);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    void reset() {
+        count.set(0);
+        Arrays.fill(samples, 0);
+    }
+
+    static double percentileMicros(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int idx = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, idx))] / 1000.0;
+    }
+}
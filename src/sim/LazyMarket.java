@@ -0,0 +1,53 @@
+package com.transport.sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * One of the company's markets (candidates, vehicles, jobs). A refresh only
+ * records a seed and a count; the offers are generated from them the first
+ * time somebody asks, so a market nobody looks at costs nothing and an
+ * opened one holds the same offers whenever it is opened.
+ */
+final class LazyMarket<T> {
+    private final Function<SimRandom, T> generator;
+    private final List<T> offers = new ArrayList<>();
+    private long seed;
+    private int count;
+    private boolean pending; // refreshed but not generated yet
+
+    LazyMarket(Function<SimRandom, T> generator) { this.generator = generator; }
+
+    /** Takes over the state of {@code from}, generated offers passed through {@code copy}. Only reads {@code from}. */
+    void copyFrom(LazyMarket<T> from, UnaryOperator<T> copy) {
+        offers.clear();
+        seed = from.seed;
+        count = from.count;
+        pending = from.pending;
+        for (T o : from.offers) offers.add(copy.apply(o));
+    }
+
+    /** Replaces the offers with {@code count} new ones drawn from {@code seed}. */
+    void refresh(long seed, int count) {
+        offers.clear();
+        this.seed = seed;
+        this.count = count;
+        pending = true;
+    }
+
+    /** The offers, generated on first use; changes stick until the next refresh. */
+    List<T> offers() {
+        if (pending) {
+            pending = false;
+            SimRandom rng = new SimRandom(seed);
+            for (int i = 0; i < count; i++) offers.add(generator.apply(rng));
+        }
+        return offers;
+    }
+
+    boolean isPending() { return pending; }
+    long seed() { return seed; }
+    int count() { return count; }
+}
@@ -0,0 +1,15 @@
+package com.transport.sim;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Latency of one turn phase over the recent window, in microseconds. */
+@Getter
+@AllArgsConstructor
+public class PhaseLatency {
+    private final String phase;
+    private final long count;
+    private final double p50Micros;
+    private final double p99Micros;
+    private final double maxMicros;
+}
@@ -0,0 +1,18 @@
+package com.transport.sim;
+
+/**
+ * Kinds of entries in a game {@link Journal}. Entities are referenced by their
+ * position at the time of the action, which a replay from the same seed
+ * reproduces exactly. The meaning of the two operands is documented next to
+ * the constant.
+ */
+public enum PlayerAction {
+    TURNS,          // a = number of consecutive turns advanced
+    HIRE,           // a = index in Company.getCandidates()
+    BUY_VEHICLE,    // a = index in Company.getVehicleMarket()
+    SELL_VEHICLE,   // a = vehicle index
+    ASSIGN_VEHICLE, // a = driver index, b = vehicle index or -1 to unassign
+    START_JOB,      // a = index in Company.getJobMarket(), b = driver index
+    REPAIR,         // a = vehicle index
+    TRAIN           // a = driver index
+}
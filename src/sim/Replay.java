@@ -0,0 +1,32 @@
+package com.transport.sim;
+
+/**
+ * Rebuilds a game from its {@link Journal}: a fresh Simulator with the
+ * recorded settings and seed, driven through the same actions and turns as
+ * fast as the CPU allows. The event log is switched off, nothing is rendered.
+ */
+public final class Replay {
+
+    private Replay() {}
+
+    public static Simulator run(Journal journal) { return run(journal, journal.getSettings(), Integer.MAX_VALUE); }
+
+    /**
+     * Replays under {@code settings} (e.g. another difficulty to re-score the game
+     * under different balance) and stops after {@code maxTurns} turns.
+     */
+    public static Simulator run(Journal journal, GameSettings settings, int maxTurns) {
+        Simulator sim = new Simulator(settings, journal.getSeed());
+        sim.getEvents().setEnabled(false);
+        for (int i = 0; i < journal.getSize() && sim.getTurn() < maxTurns && !sim.isGameOver(); i++) {
+            PlayerAction action = journal.getType(i);
+            if (action == PlayerAction.TURNS) {
+                int turns = Math.min(journal.getA(i), maxTurns - sim.getTurn());
+                for (int t = 0; t < turns && !sim.isGameOver(); t++) sim.runTurn();
+            } else {
+                sim.apply(action, journal.getA(i), journal.getB(i));
+            }
+        }
+        return sim;
+    }
+}
@@ -0,0 +1,134 @@
+package com.transport.sim;
+
+import java.util.*;
+
+/**
+ * Weighted road graph between cities, with every shortest path worked out
+ * once up front. Distances live in a flat city x city matrix and paths in a
+ * matching predecessor matrix, so looking up a route never searches the graph;
+ * the {@link Route} objects themselves are built from the predecessors the
+ * first time a pair is asked for and then reused.
+ */
+public final class RoadNetwork {
+    public static final String DEPOT = "Baza Stryków";
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // Main roads, approximate distances in km
+    private static final String[] POLISH_CITIES = {
+        DEPOT, "Warszawa", "Kraków", "Łódź", "Wrocław", "Poznań", "Gdańsk", "Szczecin",
+        "Bydgoszcz", "Toruń", "Lublin", "Białystok", "Katowice", "Rzeszów", "Kielce",
+        "Olsztyn", "Opole", "Zielona Góra", "Częstochowa", "Radom", "Koszalin"
+    };
+    private static final Object[][] POLISH_ROADS = {
+        {DEPOT, "Łódź", 25}, {DEPOT, "Warszawa", 115}, {DEPOT, "Toruń", 160},
+        {"Warszawa", "Łódź", 135}, {"Warszawa", "Radom", 105}, {"Warszawa", "Lublin", 170},
+        {"Warszawa", "Białystok", 200}, {"Warszawa", "Olsztyn", 215}, {"Warszawa", "Toruń", 210},
+        {"Łódź", "Poznań", 215}, {"Łódź", "Wrocław", 220}, {"Łódź", "Częstochowa", 125},
+        {"Łódź", "Kielce", 145}, {"Łódź", "Toruń", 180},
+        {"Częstochowa", "Katowice", 75}, {"Częstochowa", "Opole", 95},
+        {"Katowice", "Kraków", 80}, {"Katowice", "Opole", 115}, {"Opole", "Wrocław", 100},
+        {"Kraków", "Kielce", 115}, {"Kraków", "Rzeszów", 165},
+        {"Kielce", "Radom", 80}, {"Kielce", "Lublin", 165}, {"Radom", "Lublin", 115},
+        {"Lublin", "Rzeszów", 170}, {"Lublin", "Białystok", 255}, {"Białystok", "Olsztyn", 220},
+        {"Olsztyn", "Gdańsk", 170}, {"Olsztyn", "Toruń", 175},
+        {"Gdańsk", "Bydgoszcz", 165}, {"Gdańsk", "Koszalin", 190}, {"Toruń", "Bydgoszcz", 50},
+        {"Bydgoszcz", "Poznań", 140}, {"Bydgoszcz", "Koszalin", 210}, {"Koszalin", "Szczecin", 160},
+        {"Szczecin", "Poznań", 265}, {"Szczecin", "Zielona Góra", 210},
+        {"Poznań", "Zielona Góra", 135}, {"Poznań", "Wrocław", 180}, {"Zielona Góra", "Wrocław", 160}
+    };
+
+    private static final class Holder {
+        static final RoadNetwork POLAND = new RoadNetwork(POLISH_CITIES, POLISH_ROADS);
+    }
+
+    /** The game map, built on first use. */
+    public static RoadNetwork poland() { return Holder.POLAND; }
+
+    private final String[] cities;
+    private final Map<String, Integer> index = new HashMap<>();
+    private final int[] dist;      // [from * size + to], km
+    private final short[] pred;    // city before 'to' on the path from 'from', -1 at the start or if unreachable
+    private final Route[] routes;  // filled lazily; a race only builds an equal route twice
+    private final List<String> destinations;
+
+    /** @param roads {city, city, km} triples, roads run both ways. */
+    RoadNetwork(String[] cities, Object[][] roads) {
+        if (cities.length > Short.MAX_VALUE) throw new IllegalArgumentException("Too many cities: " + cities.length);
+        this.cities = cities.clone();
+        for (int i = 0; i < cities.length; i++) index.put(cities[i], i);
+        int n = cities.length;
+
+        int[] weight = new int[n * n];
+        Arrays.fill(weight, UNREACHABLE);
+        for (Object[] road : roads) {
+            int a = indexOf((String) road[0]), b = indexOf((String) road[1]), km = (Integer) road[2];
+            weight[a * n + b] = weight[b * n + a] = Math.min(weight[a * n + b], km);
+        }
+
+        dist = new int[n * n];
+        pred = new short[n * n];
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(pred, (short) -1);
+        boolean[] done = new boolean[n];
+        for (int s = 0; s < n; s++) {
+            // Dijkstra with a linear scan for the next city, fine for a country-sized map
+            int row = s * n;
+            Arrays.fill(done, false);
+            dist[row + s] = 0;
+            while (true) {
+                int u = -1;
+                for (int v = 0; v < n; v++)
+                    if (!done[v] && dist[row + v] != UNREACHABLE && (u < 0 || dist[row + v] < dist[row + u])) u = v;
+                if (u < 0) break;
+                done[u] = true;
+                for (int v = 0; v < n; v++) {
+                    int w = weight[u * n + v];
+                    if (w == UNREACHABLE || done[v]) continue;
+                    if (dist[row + u] + w < dist[row + v]) {
+                        dist[row + v] = dist[row + u] + w;
+                        pred[row + v] = (short) u;
+                    }
+                }
+            }
+        }
+        routes = new Route[n * n];
+
+        List<String> dest = new ArrayList<>(Arrays.asList(cities));
+        dest.remove(DEPOT);
+        destinations = Collections.unmodifiableList(dest);
+    }
+
+    public int size() { return cities.length; }
+
+    public String city(int i) { return cities[i]; }
+
+    public int indexOf(String city) {
+        Integer i = index.get(city);
+        if (i == null) throw new IllegalArgumentException("Unknown city: " + city);
+        return i;
+    }
+
+    public boolean contains(String city) { return index.containsKey(city); }
+
+    /** Cities jobs can be sent to, everything but the depot. */
+    public List<String> getDestinations() { return destinations; }
+
+    /** Shortest road distance in km, {@link #UNREACHABLE} if there is no road. */
+    public int distance(int from, int to) { return dist[from * cities.length + to]; }
+
+    public Route route(String from, String to) { return route(indexOf(from), indexOf(to)); }
+
+    /** Shortest route between two cities; the same instance is returned on every call. */
+    public Route route(int from, int to) {
+        int n = cities.length, key = from * n + to;
+        Route r = routes[key];
+        if (r != null) return r;
+        if (dist[key] == UNREACHABLE) throw new IllegalArgumentException("No road from " + cities[from] + " to " + cities[to]);
+        LinkedList<String> path = new LinkedList<>();
+        for (int c = to; c != from; c = pred[from * n + c]) path.addFirst(cities[c]);
+        path.addFirst(cities[from]);
+        r = new Route(path, dist[key]);
+        routes[key] = r;
+        return r;
+    }
+}
@@ -0,0 +1,183 @@
+package com.transport.sim;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Column store for a company's drivers, the roster counterpart of
+ * {@link Fleet}. A {@link Driver} is a handle onto a slot, created on demand.
+ * Salaries only change by hiring and leaving, so the payroll is kept as a
+ * running total. Forks share the columns copy-on-write like the fleet's.
+ */
+final class Roster {
+    final Company owner; // null for the one-slot store of a driver outside any company
+    private int size;
+    private String[] name;
+    private int[] skill;
+    private double[] salary;
+    private Vehicle[] assignedVehicle;
+    private Driver[] handle;            // created on demand
+    private double payroll;
+    private boolean shared;             // name, skill and salary arrays also used by a fork or its parent
+    private final List<Driver> view = new View();
+
+    Roster(Company owner, int capacity) {
+        this.owner = owner;
+        capacity = Math.max(capacity, 1);
+        name = new String[capacity];
+        skill = new int[capacity];
+        salary = new double[capacity];
+        assignedVehicle = new Vehicle[capacity];
+        handle = new Driver[capacity];
+    }
+
+    private Roster(Company owner, Roster from) {
+        this.owner = owner;
+        size = from.size;
+        name = from.name;
+        skill = from.skill;
+        salary = from.salary;
+        payroll = from.payroll;
+        assignedVehicle = new Vehicle[name.length];
+        handle = new Driver[name.length];
+        shared = true;
+    }
+
+    /**
+     * Copy-on-write copy of this roster for {@code owner}. Assigned vehicles are
+     * translated from {@code vehicles} to the same slot of {@code forkVehicles};
+     * like {@link Fleet#fork}, this only reads the roster once it is shared.
+     */
+    Roster fork(Company owner, Fleet vehicles, Fleet forkVehicles) {
+        if (!shared) shared = true;
+        return assignLike(new Roster(owner, this), vehicles, forkVehicles);
+    }
+
+    /** Like {@link Fleet#copy}: a roster with arrays of its own, leaving this one their sole owner. */
+    Roster copy(Company owner, Fleet vehicles, Fleet copyVehicles) {
+        Roster r = new Roster(owner, this);
+        r.own();
+        r.shared = true;
+        return assignLike(r, vehicles, copyVehicles);
+    }
+
+    private Roster assignLike(Roster r, Fleet vehicles, Fleet toVehicles) {
+        for (int i = 0; i < size; i++) {
+            int slot = vehicles.indexOf(assignedVehicle[i]);
+            if (slot >= 0) r.assignedVehicle[i] = toVehicles.handle(slot);
+        }
+        return r;
+    }
+
+    private void own() {
+        if (!shared) return;
+        name = name.clone();
+        skill = skill.clone();
+        salary = salary.clone();
+        shared = false;
+    }
+
+    int size() { return size; }
+
+    /** Appends an unassigned driver without creating its handle. @return its slot */
+    int add(String name, int skill, double salary) {
+        own();
+        if (size == handle.length) grow();
+        int s = size++;
+        this.name[s] = name;
+        this.skill[s] = skill;
+        this.salary[s] = salary;
+        payroll += salary;
+        return s;
+    }
+
+    private void grow() {
+        int capacity = handle.length + (handle.length >> 1) + 1;
+        name = Arrays.copyOf(name, capacity);
+        skill = Arrays.copyOf(skill, capacity);
+        salary = Arrays.copyOf(salary, capacity);
+        assignedVehicle = Arrays.copyOf(assignedVehicle, capacity);
+        handle = Arrays.copyOf(handle, capacity);
+    }
+
+    Driver handle(int slot) {
+        Driver d = handle[slot];
+        if (d == null) handle[slot] = d = new Driver(this, slot);
+        return d;
+    }
+
+    void bind(Driver d, int slot) {
+        handle[slot] = d;
+        d.store = this;
+        d.slot = slot;
+    }
+
+    /** Slot of {@code d} in this store, -1 if it lives elsewhere. */
+    int indexOf(Driver d) { return d != null && d.store == this ? d.slot : -1; }
+
+    /** Moves a driver from its current store to the end of this one, keeping its handle and vehicle. */
+    void adopt(Driver d) {
+        Roster from = d.store;
+        int s = d.slot;
+        int slot = add(from.name[s], from.skill[s], from.salary[s]);
+        assignedVehicle[slot] = from.assignedVehicle[s];
+        from.remove(s);
+        bind(d, slot);
+    }
+
+    /** Takes a driver out of this store; its handle keeps working on a store of its own. */
+    void release(Driver d) {
+        int s = d.slot;
+        Roster loose = new Roster(null, 1);
+        loose.add(name[s], skill[s], salary[s]);
+        loose.assignedVehicle[0] = assignedVehicle[s];
+        remove(s);
+        loose.bind(d, 0);
+    }
+
+    private void remove(int s) {
+        own();
+        payroll -= salary[s];
+        int tail = size - s - 1;
+        System.arraycopy(name, s + 1, name, s, tail);
+        System.arraycopy(skill, s + 1, skill, s, tail);
+        System.arraycopy(salary, s + 1, salary, s, tail);
+        System.arraycopy(assignedVehicle, s + 1, assignedVehicle, s, tail);
+        System.arraycopy(handle, s + 1, handle, s, tail);
+        size--;
+        name[size] = null;
+        assignedVehicle[size] = null;
+        handle[size] = null;
+        if (size == 0) payroll = 0; // drop any rounding left by fractional salaries
+        for (int i = s; i < size; i++) if (handle[i] != null) handle[i].slot = i;
+    }
+
+    String name(int s) { return name[s]; }
+    int skill(int s) { return skill[s]; }
+    double salary(int s) { return salary[s]; }
+    Vehicle assignedVehicle(int s) { return assignedVehicle[s]; }
+
+    void setAssignedVehicle(int s, Vehicle v) { assignedVehicle[s] = v; }
+    void train(int s, int delta) {
+        own();
+        skill[s] = Math.min(100, skill[s] + delta);
+    }
+
+    double payroll() { return payroll; }
+
+    /** Read-only list of handles in roster order. */
+    List<Driver> asList() { return view; }
+
+    private final class View extends AbstractList<Driver> implements RandomAccess {
+        @Override public Driver get(int i) {
+            if (i < 0 || i >= size) throw new IndexOutOfBoundsException("Index " + i + " out of bounds for length " + size);
+            return handle(i);
+        }
+        @Override public int size() { return size; }
+        @Override public int indexOf(Object o) { return o instanceof Driver ? Roster.this.indexOf((Driver) o) : -1; }
+        @Override public int lastIndexOf(Object o) { return indexOf(o); }
+        @Override public boolean contains(Object o) { return indexOf(o) >= 0; }
+    }
+}
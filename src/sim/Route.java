@@ -4,10 +4,15 @@ import java.util.*;
 import lombok.Getter;
 
 public class Route {
-    private List<String> path;
-    @Getter private int length; // km
+    private final List<String> path;
+    @Getter private final int length; // km
 
-    public Route(List<String> path, int length) { this.path = path; this.length = length; }
+    public Route(List<String> path, int length) { this.path = List.copyOf(path); this.length = length; }
     public List<String> getPath() { return path; }
-}
 
+    public String getOrigin() { return path.get(0); }
+    public String getDestination() { return path.get(path.size() - 1); }
+
+    @Override
+    public String toString() { return String.join(" → ", path) + " (" + length + " km)"; }
+}
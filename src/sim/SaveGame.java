@@ -0,0 +1,156 @@
+package com.transport.sim;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.Getter;
+
+/**
+ * Immutable capture of a complete game, and its on-disk format.
+ *
+ * The capture is the encoded state itself, so taking it costs one pass over the
+ * company and the slow parts (compression, disk I/O, fsync) can run on any
+ * thread while the game goes on. File layout: 20-byte header (magic, version,
+ * flags, uncompressed length, turn) followed by the state, deflated when
+ * FLAG_DEFLATE is set. Files are written to a temp file and renamed over the
+ * target, so a crash mid-save leaves the previous save intact.
+ */
+public final class SaveGame {
+    public static final String EXTENSION = ".tmsave";
+    public static final String AUTOSAVE_FILE = "autosave" + EXTENSION;
+
+    private static final int MAGIC = 0x544d5356; // "TMSV"
+    static final int VERSION = 4; // 2: game journal appended, 3: job routes, 4: unopened markets as seed and count
+    private static final int FLAG_DEFLATE = 1;
+    private static final int HEADER_SIZE = 20;
+    private static final int CHUNK = 64 * 1024;
+
+    private final ByteBuffer state;
+    @Getter private final int turn;
+    private final int version;
+
+    private SaveGame(ByteBuffer state, int turn, int version) {
+        this.state = state;
+        this.turn = turn;
+        this.version = version;
+    }
+
+    /**
+     * Captures the current state. Must not run concurrently with a turn, i.e. call
+     * it on the simulation thread or while holding the simulator lock.
+     */
+    public static SaveGame capture(Simulator sim) {
+        Company c = sim.getCompany();
+        int estimate = 1024 + c.getVehicleCount() * 48 + c.getDriverCount() * 40
+                + c.getActiveJobs().size() * 80 + c.getHistory().size() * 28;
+        StateBuffer out = new StateBuffer(estimate);
+        sim.writeState(out);
+        return new SaveGame(out.toReadOnly(), sim.getTurn(), VERSION);
+    }
+
+    /** Rebuilds a simulator from this capture; can be called more than once. */
+    public Simulator restore() {
+        return new Simulator(new StateBuffer(copy(state), version));
+    }
+
+    public int size() { return state.remaining(); }
+
+    public void write(Path file, boolean compress) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(compress ? FLAG_DEFLATE : 0)
+                        .putInt(state.remaining()).putInt(turn).flip();
+                writeFully(ch, header);
+                ByteBuffer body = state.duplicate();
+                if (compress) writeDeflated(ch, body);
+                else writeFully(ch, body);
+                ch.force(false);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            // Nothing was moved, so the half-written temp file would only pile up next to the saves
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    public static SaveGame read(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) throw new IOException("Not a save file: " + file);
+            ByteBuffer data = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (data.hasRemaining() && ch.read(data) >= 0) { }
+            data.flip();
+            if (data.getInt() != MAGIC) throw new IOException("Not a save file: " + file);
+            int version = data.getInt();
+            if (version < 1 || version > VERSION) throw new IOException("Unsupported save version " + version);
+            int flags = data.getInt();
+            int length = data.getInt();
+            int turn = data.getInt();
+            ByteBuffer state = (flags & FLAG_DEFLATE) != 0 ? inflate(data, length) : data.slice();
+            return new SaveGame(state.order(ByteOrder.LITTLE_ENDIAN).asReadOnlyBuffer(), turn, version);
+        }
+    }
+
+    private static void writeDeflated(FileChannel ch, ByteBuffer body) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(body);
+            deflater.finish();
+            ByteBuffer chunk = ByteBuffer.allocateDirect(CHUNK);
+            while (!deflater.finished()) {
+                deflater.deflate(chunk);
+                chunk.flip();
+                writeFully(ch, chunk);
+                chunk.clear();
+            }
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer in, int length) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(in);
+            ByteBuffer out = ByteBuffer.allocate(length);
+            while (out.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(out) == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+            }
+            if (out.hasRemaining()) throw new IOException("Truncated save file");
+            return out.flip();
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt save file", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    // The decoder reads from a heap array, the capture itself stays untouched
+    private static ByteBuffer copy(ByteBuffer src) {
+        ByteBuffer dup = src.duplicate();
+        ByteBuffer out = ByteBuffer.allocate(dup.remaining());
+        out.put(dup).flip();
+        return out;
+    }
+}
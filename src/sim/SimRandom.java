@@ -0,0 +1,66 @@
+package com.transport.sim;
+
+import java.util.random.RandomGenerator;
+import lombok.Getter;
+
+/**
+ * Seeded SplitMix64 generator (same algorithm as java.util.SplittableRandom).
+ * Every Simulator owns one root instance and hands split() streams to the parts
+ * that draw random numbers, so parallel games never share state and a game can
+ * be replayed exactly from its seed. Not thread-safe - one stream per thread.
+ */
+public class SimRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    @Getter private final long initialSeed;
+    private long seed;
+    private final long gamma;
+
+    public SimRandom(long seed) { this(seed, GOLDEN_GAMMA); }
+
+    private SimRandom(long seed, long gamma) {
+        this(seed, seed, gamma);
+    }
+
+    private SimRandom(long initialSeed, long seed, long gamma) {
+        this.initialSeed = initialSeed;
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    void writeState(StateBuffer out) {
+        out.putLong(initialSeed);
+        out.putLong(seed);
+        out.putLong(gamma);
+    }
+
+    static SimRandom readState(StateBuffer in) {
+        return new SimRandom(in.getLong(), in.getLong(), in.getLong());
+    }
+
+    @Override
+    public long nextLong() { return mix64(seed += gamma); }
+
+    @Override
+    public int nextInt() { return (int) (mix64(seed += gamma) >>> 32); }
+
+    /** Returns an independent stream; advances this one by two steps. */
+    public SimRandom split() {
+        long s = nextLong();
+        return new SimRandom(s, mixGamma(seed += gamma));
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -1,37 +1,217 @@
 package com.transport.sim;
 
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 import lombok.Getter;
 
 public class Simulator {
+    public static final double REPAIR_COST = 100;
+    public static final double TRAINING_COST = 50;
+
     @Getter private Company company;
-    private Random rng = new Random();
+    @Getter private final long seed;
+    private final SimRandom rng;
     @Getter private int turn = 0;
     private List<Job> completedThisTurn = new ArrayList<>();
     @Getter private GameSettings settings; // Exposed getter for UI access
     @Getter private boolean gameOver = false;
+    @Getter private final TurnEvents events = new TurnEvents(); // events of the last turn
+    @Getter private final Journal journal;
+    @Getter private final EventEngine randomEvents; // register extra rules before the first turn
+    private final TurnProfiler profiler;
 
     public Simulator(GameSettings settings) {
+        this(settings, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates a simulator whose whole game is reproducible from {@code seed}.
+     */
+    public Simulator(GameSettings settings, long seed) {
         this.settings = settings;
-        this.company = new Company(settings.getDifficulty().getStartingCash());
+        this.seed = seed;
+        this.journal = new Journal(settings, seed);
+        this.profiler = new TurnProfiler(TurnStatistics.get());
+        this.randomEvents = EventEngine.standard(settings);
+        SimRandom root = new SimRandom(seed);
+        this.rng = root.split();
+        this.company = new Company(settings.getDifficulty().getStartingCash(), root.split());
         this.company.setFuelPriceMultiplier(settings.getDifficulty().getFuelCostMultiplier()); 
         initSampleData(); 
     }
 
+    /** Restores a simulator written by {@link #writeState}; see {@link SaveGame}. */
+    Simulator(StateBuffer in) {
+        this.settings = new GameSettings(in.getString(), GameSettings.Difficulty.valueOf(in.getString()));
+        this.seed = in.getLong();
+        this.turn = in.getInt();
+        this.gameOver = in.getBoolean();
+        this.rng = SimRandom.readState(in);
+        this.company = new Company(in);
+        this.journal = new Journal(settings, seed);
+        this.profiler = new TurnProfiler(TurnStatistics.get());
+        this.randomEvents = EventEngine.standard(settings);
+        if (in.version() >= 2) journal.readState(in);
+    }
+
+    private Simulator(Simulator from, long seed, boolean copyColumns) {
+        this.settings = from.settings;
+        this.seed = seed;
+        this.turn = from.turn;
+        this.gameOver = from.gameOver;
+        this.journal = new Journal(settings, seed);
+        this.profiler = new TurnProfiler(null);
+        this.randomEvents = from.randomEvents;
+        SimRandom root = new SimRandom(seed);
+        this.rng = root.split();
+        this.company = new Company(from.company, root.split(), copyColumns);
+    }
+
+    /**
+     * Copy of the current game that continues with its own random streams from
+     * {@code seed}. Company state is shared copy-on-write, so a fork is cheap
+     * until it diverges; its turns go to a journal of its own and not to the
+     * turn statistics. Forking only reads the state shared with earlier forks,
+     * so a fork that is never run can itself be forked from several threads.
+     */
+    public Simulator fork(long seed) { return new Simulator(this, seed, false); }
+
+    /**
+     * Like {@link #fork}, but the fleet and roster columns are copied up front,
+     * so this game keeps sole ownership of its own and never copies them when
+     * it plays on. For a game that keeps running while the copy is forked.
+     */
+    public Simulator copy(long seed) { return new Simulator(this, seed, true); }
+
+    void writeState(StateBuffer out) {
+        out.putString(settings.getCompanyName());
+        out.putString(settings.getDifficulty().name());
+        out.putLong(seed);
+        out.putInt(turn);
+        out.putBoolean(gameOver);
+        rng.writeState(out);
+        company.writeState(out);
+        journal.writeState(out);
+    }
+
+    // ================= PLAYER ACTIONS =================
+    // Every change the player makes goes through here so it lands in the journal.
+    // The simulator is single-threaded; the UI reaches it through a CommandQueue.
+
+    public boolean hire(DriverCandidate c) {
+        return apply(PlayerAction.HIRE, company.getCandidates().indexOf(c), 0);
+    }
+
+    public boolean buyVehicle(VehicleOffer offer) {
+        return apply(PlayerAction.BUY_VEHICLE, company.getVehicleMarket().indexOf(offer), 0);
+    }
+
+    /** @return sale price, 0 if the vehicle could not be sold. */
+    public double sellVehicle(Vehicle v) {
+        int idx = company.getVehicles().indexOf(v);
+        journal.record(PlayerAction.SELL_VEHICLE, idx, 0);
+        return execute(PlayerAction.SELL_VEHICLE, idx, 0);
+    }
+
+    public boolean assignVehicle(Driver d, Vehicle v) {
+        int vehicle = v == null ? -1 : company.getVehicles().indexOf(v);
+        if (v != null && vehicle < 0) return false; // sold in the meantime, not a request to unassign
+        return apply(PlayerAction.ASSIGN_VEHICLE, company.getDrivers().indexOf(d), vehicle);
+    }
+
+    /** Sends the driver out on a job from the market with the vehicle assigned to them. */
+    public boolean startJob(Job j, Driver d) {
+        return apply(PlayerAction.START_JOB, company.getJobMarket().indexOf(j), company.getDrivers().indexOf(d));
+    }
+
+    public boolean repair(Vehicle v) {
+        return apply(PlayerAction.REPAIR, company.getVehicles().indexOf(v), 0);
+    }
+
+    public boolean train(Driver d) {
+        return apply(PlayerAction.TRAIN, company.getDrivers().indexOf(d), 0);
+    }
+
+    /**
+     * Starts the most profitable plan of open jobs for the idle crews, see {@link Dispatcher}.
+     * Each start is journaled like a manual one.
+     * @return number of jobs started.
+     */
+    public int autoDispatch() {
+        int started = 0;
+        for (Dispatch d : Dispatcher.forCompany(company, settings).plan(company))
+            if (startJob(d.getJob(), d.getDriver())) started++;
+        return started;
+    }
+
+    /**
+     * Records and performs an action given by entity positions, as stored in the journal.
+     * @return whether the action had any effect.
+     */
+    public boolean apply(PlayerAction action, int a, int b) {
+        if (action == PlayerAction.TURNS) {
+            for (int i = 0; i < a; i++) runTurn();
+            return a > 0;
+        }
+        journal.record(action, a, b);
+        return execute(action, a, b) != 0;
+    }
+
+    private double execute(PlayerAction action, int a, int b) {
+        List<Vehicle> vehicles = company.getVehicles();
+        List<Driver> drivers = company.getDrivers();
+        switch (action) {
+            case HIRE:
+                return a >= 0 && a < company.getCandidates().size() && company.hireCandidate(company.getCandidates().get(a)) ? 1 : 0;
+            case BUY_VEHICLE:
+                return a >= 0 && a < company.getVehicleMarket().size() && company.buyOffer(company.getVehicleMarket().get(a)) ? 1 : 0;
+            case SELL_VEHICLE:
+                return a >= 0 && a < vehicles.size() ? company.sellVehicle(vehicles.get(a)) : 0;
+            case ASSIGN_VEHICLE: {
+                if (a < 0 || a >= drivers.size() || b >= vehicles.size()) return 0;
+                Driver d = drivers.get(a);
+                if (company.isDriverBusy(d)) return 0;
+                d.setAssignedVehicle(b < 0 ? null : vehicles.get(b));
+                return 1;
+            }
+            case START_JOB: {
+                List<Job> market = company.getJobMarket();
+                if (a < 0 || a >= market.size() || b < 0 || b >= drivers.size()) return 0;
+                Job j = market.get(a);
+                Driver d = drivers.get(b);
+                if (j.isAssigned() || !d.hasVehicle() || company.isDriverBusy(d)) return 0;
+                j.assign(d, d.getAssignedVehicle());
+                return 1;
+            }
+            case REPAIR:
+                if (a < 0 || a >= vehicles.size() || company.getCash() < REPAIR_COST) return 0;
+                company.addCash(-REPAIR_COST);
+                vehicles.get(a).repair(20);
+                return 1;
+            case TRAIN:
+                if (a < 0 || a >= drivers.size() || company.getCash() < TRAINING_COST) return 0;
+                company.addCash(-TRAINING_COST);
+                drivers.get(a).train(5);
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
     public List<Job> getCompletedThisTurn() { return new ArrayList<>(completedThisTurn); }
 
     public void initSampleData() {
         if(!company.getVehicles().isEmpty()) return;
 
-        company.addVehicle(new Vehicle(Vehicle.generateRandomName(), 8000, 100, 0.12));
-        company.addVehicle(new Vehicle(Vehicle.generateRandomName(), 10000, 90, 0.14));
-        company.addVehicle(new Vehicle(Vehicle.generateRandomName(), 4000, 80, 0.08));
+        company.addVehicle(new Vehicle(Vehicle.generateRandomName(rng), 8000, 100, 0.12));
+        company.addVehicle(new Vehicle(Vehicle.generateRandomName(rng), 10000, 90, 0.14));
+        company.addVehicle(new Vehicle(Vehicle.generateRandomName(rng), 4000, 80, 0.08));
 
         company.addDriver(new Driver("Jan Kowalski", 50, 475.0));
         company.addDriver(new Driver("Anna Nowak", 75, 610.0));
 
-        company.addJob(Job.randomJob());
-        company.addJob(Job.randomJob());
+        company.addJob(Job.randomJob(rng));
+        company.addJob(Job.randomJob(rng));
 
         company.refreshCandidatePool();
         company.refreshVehicleMarket();
@@ -42,128 +222,149 @@ public class Simulator {
      * @return Log string of events.
      */
     public String nextTurn() {
-        if (gameOver) return "GRA ZAKOŃCZONA. Zrestartuj aplikację.";
+        runTurn();
+        return events.render();
+    }
+
+    /**
+     * Advances the simulation by one turn without rendering the log.
+     * Events of the turn are left in {@link #getEvents()}.
+     */
+    public void runTurn() {
+        events.clear();
+        if (gameOver) {
+            events.add(TurnEventType.GAME_ALREADY_OVER);
+            return;
+        }
 
         turn++;
+        journal.recordTurn();
         completedThisTurn.clear();
-        StringBuilder log = new StringBuilder();
+        profiler.startTurn(turn);
 
         try {
-            log.append(String.format("--- TURA %d ---\n", turn));
+            events.add(TurnEventType.TURN_STARTED, turn);
 
             // 1. Economy: Salary Deductions
-            double totalSalaries = company.getDrivers().stream()
-                    .mapToDouble(Driver::getSalary)
-                    .sum();
+            double totalSalaries = company.getTotalSalaries();
             company.addCash(-totalSalaries);
-            log.append(String.format("Finanse: Wypłacono pensje pracownikom: %.2f\n", totalSalaries));
+            events.add(TurnEventType.SALARIES_PAID, totalSalaries);
 
             // Check bankruptcy immediately after salaries
             if (checkBankruptcy()) {
-                log.append("\n!!! BANKRUCTWO !!!\nFirma utraciła płynność finansową.");
-                return log.toString();
+                events.add(TurnEventType.BANKRUPTCY_AFTER_SALARIES);
+                return;
             }
+            profiler.endPhase(TurnPhase.SALARIES, company);
 
             // 2. Fuel price fluctuation
             double fuelChange = (rng.nextDouble() - 0.5) * 0.2; // +/-10%
             double newFuelPrice = Math.max(0.5, company.getFuelPrice() * (1 + fuelChange));
             company.setFuelPrice(newFuelPrice);
-            log.append(String.format("Rynek: Cena paliwa wynosi %.2f/u\n", newFuelPrice));
+            events.add(TurnEventType.FUEL_PRICE_CHANGED, newFuelPrice);
+            profiler.endPhase(TurnPhase.FUEL_PRICE, company);
 
             // 3. Market Refresh
             company.refreshCandidatePool();
             company.refreshVehicleMarket();
             company.refreshJobMarket();
+            profiler.endPhase(TurnPhase.MARKET_REFRESH, company);
 
             // 4. Maintenance Logic
-            for (Vehicle v : company.getVehicles()) {
-                if (v.isMaintenanceDue()) {
-                    double cost = v.getMaintenanceCost() * company.getFuelPriceMultiplier();
-                    if (company.getCash() >= cost) {
-                        company.addCash(-cost);
-                        v.performMaintenance();
-                        log.append(String.format("Serwis: %s przeszedł przegląd (Koszt: %.2f)\n", v.getName(), cost));
-                    } else {
-                        v.damage(8); 
-                        log.append(String.format("ALARM: Brak środków na serwis %s! Stan techniczny spada.\n", v.getName()));
-                    }
+            // only vehicles in the fleet's due index, in fleet order
+            Fleet fleet = company.fleet();
+            for (int i : fleet.dueSlots()) {
+                double cost = fleet.maintenanceCost(i) * company.getFuelPriceMultiplier();
+                if (company.getCash() >= cost) {
+                    company.addCash(-cost);
+                    fleet.performMaintenance(i);
+                    events.add(TurnEventType.MAINTENANCE_DONE, fleet.name(i), cost);
+                } else {
+                    fleet.damage(i, 8); 
+                    events.add(TurnEventType.MAINTENANCE_SKIPPED, fleet.name(i), 0);
                 }
             }
+            profiler.endPhase(TurnPhase.MAINTENANCE, company);
 
-            // 5. Process active jobs
-            List<Job> toFinalize = new ArrayList<>();
-            for (Job j : new ArrayList<>(company.getJobs())) {
-                if (j.isAssigned() && !j.isCompleted()) {
-                    Driver d = j.getAssignedDriver();
-                    Vehicle v = j.getAssignedVehicle();
-
-                    if (d == null || v == null || !company.getVehicles().contains(v)) {
-                        j.setCompleted(true);
-                        j.setResult("Anulowano: Zasób niedostępny");
-                        toFinalize.add(j);
-                        continue;
-                    }
-
-                    j.decrementTurnsRemaining();
-
-                    if (j.getTurnsRemaining() <= 0) {
-                        processJobCompletion(j, d, v, log);
-                        toFinalize.add(j);
-                    }
-                }
-            }
+            // 5. Process jobs finishing this turn
+            for (Job j : company.collectDueJobs(turn)) {
+                Driver d = j.getAssignedDriver();
+                Vehicle v = j.getAssignedVehicle();
 
-            for (Job j : toFinalize) {
+                if (d == null || v == null || !company.ownsVehicle(v)) {
+                    j.setCompleted(true);
+                    j.setResult("Anulowano: Zasób niedostępny");
+                } else {
+                    processJobCompletion(j, d, v);
+                }
                 completedThisTurn.add(j);
-                company.getJobs().remove(j);
             }
+            profiler.endPhase(TurnPhase.JOBS, company);
 
             // 6. Random Events
-            processRandomEvents(log);
+            randomEvents.run(company, rng, events);
 
             company.recordTurn(turn);
             
             // Final bankruptcy check for the turn
             if (checkBankruptcy()) {
-                log.append("\n!!! BANKRUCTWO !!!\nStan konta spadł poniżej krytycznego poziomu.");
+                events.add(TurnEventType.BANKRUPTCY);
             }
+            profiler.endPhase(TurnPhase.RANDOM_EVENTS, company);
 
         } catch (Exception e) {
-            log.append("BŁĄD KRYTYCZNY symulacji: ").append(e.getMessage());
+            events.add(TurnEventType.SIMULATION_ERROR, e.getMessage(), 0);
             e.printStackTrace();
+        } finally {
+            profiler.endTurn(company);
         }
-
-        return log.toString();
     }
 
     private boolean checkBankruptcy() {
         double threshold = settings.getDifficulty().getBankruptcyLimit();
         if (company.getCash() < threshold) {
             this.gameOver = true;
+            profiler.bankruptcy();
             return true;
         }
         return false;
     }
 
-    private void processJobCompletion(Job j, Driver d, Vehicle v, StringBuilder log) {
-        double skillFactor = (d.getSkill() / 10.0) / 10.0; 
-        double conditionFactor = v.getCondition() / 100.0;
+    // Job outcome model, shared with the Dispatcher's profit estimate
+
+    static double successProbability(int skill, int condition, int minSkillRequired) {
+        double skillFactor = (skill / 10.0) / 10.0; 
+        double conditionFactor = condition / 100.0;
         
         double successProb = 0.95 * (0.7 * skillFactor + 0.3 * conditionFactor);
         
-        if ((d.getSkill() / 10) < j.getMinSkillRequired() + 2) {
+        if ((skill / 10) < minSkillRequired + 2) {
             successProb -= 0.15; 
         }
+        return Math.max(0.05, successProb);
+    }
+
+    static double successProfit(double reward, int skill, double revenueMult, double fuelCost) {
+        double skillFactor = (skill / 10.0) / 10.0;
+        double efficiencyBonus = 1.0 + (skillFactor * 0.2); 
+        double grossRevenue = reward * efficiencyBonus * revenueMult;
+        return grossRevenue - fuelCost;
+    }
 
-        boolean success = rng.nextDouble() < Math.max(0.05, successProb);
+    static double fuelCost(int routeLength, double fuelConsumptionPerKm, double fuelPrice) {
+        return routeLength * fuelConsumptionPerKm * fuelPrice;
+    }
+
+    static double failurePenalty(double reward) { return reward * 0.25; }
+
+    private void processJobCompletion(Job j, Driver d, Vehicle v) {
+        boolean success = rng.nextDouble() < successProbability(d.getSkill(), v.getCondition(), j.getMinSkillRequired());
         // Revenue logic with Difficulty Multiplier
         double revenueMult = settings.getDifficulty().getRevenueMultiplier();
-        double fuelCost = j.getRouteLength() * v.getFuelConsumptionPerKm() * company.getFuelPrice();
+        double fuelCost = fuelCost(j.getRouteLength(), v.getFuelConsumptionPerKm(), company.getFuelPrice());
 
         if (success) {
-            double efficiencyBonus = 1.0 + (skillFactor * 0.2); 
-            double grossRevenue = j.getReward() * efficiencyBonus * revenueMult;
-            double profit = grossRevenue - fuelCost;
+            double profit = successProfit(j.getReward(), d.getSkill(), revenueMult, fuelCost);
             
             company.addCash(profit);
             company.addReputation(j.getReputationGain()); 
@@ -172,36 +373,20 @@ public class Simulator {
             v.addKm(j.getRouteLength());
             
             j.setCompleted(true);
-            j.setResult(String.format("Sukces (Zysk: %.2f)", profit));
-            log.append(String.format("Zlecenie: '%s' ZAKOŃCZONE. Zarobek: %.2f (+%.1f Rep)\n", 
-                    j.getTitle(), profit, j.getReputationGain()));
+            j.setOutcome(TurnEventType.JOB_SUCCEEDED, profit);
+            profiler.jobFinished(true);
+            events.add(TurnEventType.JOB_SUCCEEDED, j.getTitle(), profit, j.getReputationGain());
         } else {
-            double penalty = (j.getReward() * 0.25);
+            double penalty = failurePenalty(j.getReward());
             company.addCash(-penalty);
             company.addReputation(-j.getReputationGain() * 0.5);
             
             v.damage(15 + rng.nextInt(15)); 
             
             j.setCompleted(true);
-            j.setResult(String.format("Porażka (Kara: %.2f)", penalty));
-            log.append(String.format("Zlecenie: '%s' NIEUDANE. Kara finansowa: %.2f. Reputacja spadła.\n", 
-                    j.getTitle(), penalty));
-        }
-    }
-
-    private void processRandomEvents(StringBuilder log) {
-        if (rng.nextDouble() < 0.05 && !company.getVehicles().isEmpty()) {
-            Vehicle v = company.getRandomVehicle();
-            if (v != null) {
-                log.append(String.format("ZDARZENIE: %s uległ drobnej kolizji.\n", v.getName()));
-                v.damage(20);
-                double suddenRepair = 500 * settings.getDifficulty().getMaintenanceCostMultiplier();
-                if (company.getCash() >= suddenRepair) {
-                    company.addCash(-suddenRepair);
-                    v.repair(10);
-                    log.append(String.format("ZDARZENIE: Opłacono ekspresową pomoc drogową (-%.2f).\n", suddenRepair));
-                }
-            }
+            j.setOutcome(TurnEventType.JOB_FAILED, penalty);
+            profiler.jobFinished(false);
+            events.add(TurnEventType.JOB_FAILED, j.getTitle(), penalty);
         }
     }
 }
@@ -0,0 +1,73 @@
+package com.transport.sim;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Growable little-endian buffer the simulation state is encoded into and
+ * decoded from. Strings are length-prefixed UTF-8, -1 meaning null.
+ */
+final class StateBuffer {
+    private ByteBuffer buf;
+    private final int version; // save format the data was written in
+
+    StateBuffer(int capacity) {
+        buf = ByteBuffer.allocate(Math.max(capacity, 256)).order(ByteOrder.LITTLE_ENDIAN);
+        version = SaveGame.VERSION;
+    }
+
+    StateBuffer(ByteBuffer data, int version) {
+        buf = data.order(ByteOrder.LITTLE_ENDIAN);
+        this.version = version;
+    }
+
+    int version() { return version; }
+
+    void putInt(int v) { ensure(4); buf.putInt(v); }
+    void putLong(long v) { ensure(8); buf.putLong(v); }
+    void putFloat(float v) { ensure(4); buf.putFloat(v); }
+    void putDouble(double v) { ensure(8); buf.putDouble(v); }
+    void putBoolean(boolean v) { ensure(1); buf.put((byte) (v ? 1 : 0)); }
+
+    void putString(String s) {
+        if (s == null) {
+            putInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + b.length);
+        buf.putInt(b.length);
+        buf.put(b);
+    }
+
+    boolean hasRemaining() { return buf.hasRemaining(); }
+
+    int getInt() { return buf.getInt(); }
+    long getLong() { return buf.getLong(); }
+    float getFloat() { return buf.getFloat(); }
+    double getDouble() { return buf.getDouble(); }
+    boolean getBoolean() { return buf.get() != 0; }
+
+    String getString() {
+        int len = buf.getInt();
+        if (len < 0) return null;
+        String s = new String(buf.array(), buf.arrayOffset() + buf.position(), len, StandardCharsets.UTF_8);
+        buf.position(buf.position() + len);
+        return s;
+    }
+
+    /** The bytes written so far, as a read-only buffer. */
+    ByteBuffer toReadOnly() {
+        ByteBuffer out = buf.duplicate().flip().asReadOnlyBuffer();
+        return out.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private void ensure(int n) {
+        if (buf.remaining() >= n) return;
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buf.capacity() * 2, buf.position() + n)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.flip();
+        bigger.put(buf);
+        buf = bigger;
+    }
+}
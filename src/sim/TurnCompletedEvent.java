@@ -0,0 +1,18 @@
+package com.transport.sim;
+
+import jdk.jfr.*;
+
+@Name("com.transport.Turn")
+@Label("Turn")
+@Category({"Transport Manager", "Simulation"})
+@Description("A whole simulated turn")
+@StackTrace(false)
+final class TurnCompletedEvent extends Event {
+    @Label("Turn") int turn;
+    @Label("Vehicles") int vehicles;
+    @Label("Drivers") int drivers;
+    @Label("Jobs In Transit") int activeJobs;
+    @Label("Jobs Completed") int jobsCompleted;
+    @Label("Jobs Failed") int jobsFailed;
+    @Label("Bankrupt") boolean bankrupt;
+}
@@ -0,0 +1,37 @@
+package com.transport.sim;
+
+/**
+ * Kinds of events recorded by Simulator during a turn. The payload of each
+ * kind (subject, amount, extra) is documented next to the constant.
+ */
+public enum TurnEventType {
+    TURN_STARTED,          // amount = turn number
+    GAME_ALREADY_OVER,     // no payload
+    SALARIES_PAID,         // amount = total salaries
+    BANKRUPTCY_AFTER_SALARIES,
+    BANKRUPTCY,
+    FUEL_PRICE_CHANGED,    // amount = new fuel price
+    MAINTENANCE_DONE,      // subject = vehicle name, amount = cost
+    MAINTENANCE_SKIPPED,   // subject = vehicle name
+    JOB_SUCCEEDED,         // subject = job title, amount = profit, extra = reputation gained
+    JOB_FAILED,            // subject = job title, amount = penalty
+    COLLISION,             // subject = vehicle name
+    ROADSIDE_ASSISTANCE,   // amount = cost
+    BREAKDOWN,             // subject = vehicle name, amount = towing cost
+    FUEL_SHOCK,            // amount = new fuel price
+    DRIVER_SICK,           // subject = driver name, amount = stand-in cost
+    ROAD_CLOSED,           // subject = city, amount = jobs delayed
+    CUSTOMER_BONUS,        // amount = bonus
+    SIMULATION_ERROR;      // subject = exception message
+
+    /** Events worth stopping a fast-forward for. */
+    public boolean isNotable() {
+        switch (this) {
+            case JOB_SUCCEEDED: case JOB_FAILED: case COLLISION: case BREAKDOWN: case FUEL_SHOCK: case MAINTENANCE_SKIPPED:
+            case BANKRUPTCY_AFTER_SALARIES: case BANKRUPTCY: case SIMULATION_ERROR:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.transport.sim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Reusable buffer of the events of a single turn. Events are stored as
+ * primitive columns and only turned into the Polish log text when somebody
+ * calls {@link #render()}, so headless runs pay nothing for formatting.
+ * Disabling the buffer skips recording altogether.
+ */
+public class TurnEvents {
+    private TurnEventType[] types = new TurnEventType[32];
+    private Object[] subjects = new Object[32];
+    private double[] amounts = new double[32];
+    private double[] extras = new double[32];
+    @Getter private int size;
+    @Getter @Setter private boolean enabled = true;
+
+    public void clear() {
+        Arrays.fill(subjects, 0, size, null);
+        size = 0;
+    }
+
+    public void add(TurnEventType type) { add(type, null, 0, 0); }
+
+    public void add(TurnEventType type, double amount) { add(type, null, amount, 0); }
+
+    public void add(TurnEventType type, Object subject, double amount) { add(type, subject, amount, 0); }
+
+    public void add(TurnEventType type, Object subject, double amount, double extra) {
+        if (!enabled) return;
+        if (size == types.length) {
+            int cap = size * 2;
+            types = Arrays.copyOf(types, cap);
+            subjects = Arrays.copyOf(subjects, cap);
+            amounts = Arrays.copyOf(amounts, cap);
+            extras = Arrays.copyOf(extras, cap);
+        }
+        types[size] = type;
+        subjects[size] = subject;
+        amounts[size] = amount;
+        extras[size] = extra;
+        size++;
+    }
+
+    public TurnEventType getType(int i) { return types[i]; }
+    public Object getSubject(int i) { return subjects[i]; }
+    public double getAmount(int i) { return amounts[i]; }
+    public double getExtra(int i) { return extras[i]; }
+
+    public boolean contains(TurnEventType type) {
+        for (int i = 0; i < size; i++) if (types[i] == type) return true;
+        return false;
+    }
+
+    public boolean hasNotable() {
+        for (int i = 0; i < size; i++) if (types[i].isNotable()) return true;
+        return false;
+    }
+
+    public String render() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < size; i++) sb.append(render(i));
+        return sb.toString();
+    }
+
+    public void renderTo(Appendable out) {
+        try {
+            for (int i = 0; i < size; i++) out.append(render(i));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Log text of event {@code i}, including its trailing newline. */
+    public String render(int i) { return render(types[i], subjects[i], amounts[i], extras[i]); }
+
+    public static String render(TurnEventType type, Object s, double a, double extra) {
+        switch (type) {
+            case TURN_STARTED: return String.format("--- TURA %d ---\n", (int) a);
+            case GAME_ALREADY_OVER: return "GRA ZAKOŃCZONA. Zrestartuj aplikację.";
+            case SALARIES_PAID: return String.format("Finanse: Wypłacono pensje pracownikom: %.2f\n", a);
+            case BANKRUPTCY_AFTER_SALARIES: return "\n!!! BANKRUCTWO !!!\nFirma utraciła płynność finansową.";
+            case BANKRUPTCY: return "\n!!! BANKRUCTWO !!!\nStan konta spadł poniżej krytycznego poziomu.";
+            case FUEL_PRICE_CHANGED: return String.format("Rynek: Cena paliwa wynosi %.2f/u\n", a);
+            case MAINTENANCE_DONE: return String.format("Serwis: %s przeszedł przegląd (Koszt: %.2f)\n", s, a);
+            case MAINTENANCE_SKIPPED: return String.format("ALARM: Brak środków na serwis %s! Stan techniczny spada.\n", s);
+            case JOB_SUCCEEDED: return String.format("Zlecenie: '%s' ZAKOŃCZONE. Zarobek: %.2f (+%.1f Rep)\n", s, a, extra);
+            case JOB_FAILED: return String.format("Zlecenie: '%s' NIEUDANE. Kara finansowa: %.2f. Reputacja spadła.\n", s, a);
+            case COLLISION: return String.format("ZDARZENIE: %s uległ drobnej kolizji.\n", s);
+            case ROADSIDE_ASSISTANCE: return String.format("ZDARZENIE: Opłacono ekspresową pomoc drogową (-%.2f).\n", a);
+            case BREAKDOWN: return String.format("ZDARZENIE: %s uległ awarii, holowanie (-%.2f).\n", s, a);
+            case FUEL_SHOCK: return String.format("Rynek: Skok cen paliwa! Nowa cena %.2f/u\n", a);
+            case DRIVER_SICK: return String.format("ZDARZENIE: %s na zwolnieniu lekarskim, zastępstwo (-%.2f).\n", s, a);
+            case ROAD_CLOSED: return String.format("ZDARZENIE: Zamknięta droga w mieście %s, opóźnione zlecenia: %d\n", s, (int) a);
+            case CUSTOMER_BONUS: return String.format("Finanse: Premia od zadowolonego klienta: %.2f\n", a);
+            case SIMULATION_ERROR: return "BŁĄD KRYTYCZNY symulacji: " + s;
+            default: return "";
+        }
+    }
+}
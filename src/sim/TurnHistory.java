@@ -0,0 +1,161 @@
+package com.transport.sim;
+
+import java.util.*;
+
+/**
+ * Per-turn company history kept in growable primitive columns indexed by turn.
+ * Cash is stored as a double, the other values as float/int, which keeps a
+ * row at 28 bytes and no per-turn objects, so million-turn runs stay small.
+ */
+public class TurnHistory {
+
+    public enum Column { CASH, FUEL_PRICE, REPUTATION, FLEET_SIZE, REVENUE, COSTS }
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private int firstTurn = -1;
+    private int size;
+    private double[] cash = new double[INITIAL_CAPACITY];
+    private float[] fuelPrice = new float[INITIAL_CAPACITY];
+    private float[] reputation = new float[INITIAL_CAPACITY];
+    private int[] fleetSize = new int[INITIAL_CAPACITY];
+    private float[] revenue = new float[INITIAL_CAPACITY];
+    private float[] costs = new float[INITIAL_CAPACITY];
+
+    /**
+     * Stores the row for {@code turn}. Turns must be recorded in increasing order;
+     * skipped turns repeat the previous row, re-recording the last turn overwrites it.
+     */
+    public void record(int turn, double cashValue, double fuel, double rep, int fleet, double rev, double cost) {
+        if (firstTurn < 0) firstTurn = turn;
+        int idx = turn - firstTurn;
+        if (idx < 0 || idx < size - 1) throw new IllegalArgumentException("Turn " + turn + " already recorded");
+        ensureCapacity(idx + 1);
+        for (int i = size; i < idx; i++) copyRow(i - 1, i);
+        cash[idx] = cashValue;
+        fuelPrice[idx] = (float) fuel;
+        reputation[idx] = (float) rep;
+        fleetSize[idx] = fleet;
+        revenue[idx] = (float) rev;
+        costs[idx] = (float) cost;
+        size = idx + 1;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int getFirstTurn() { return firstTurn; }
+    public int getLastTurn() { return firstTurn + size - 1; }
+    public boolean contains(int turn) { return size > 0 && turn >= firstTurn && turn <= getLastTurn(); }
+
+    public double getCash(int turn) { return cash[index(turn)]; }
+    public double getFuelPrice(int turn) { return fuelPrice[index(turn)]; }
+    public double getReputation(int turn) { return reputation[index(turn)]; }
+    public int getFleetSize(int turn) { return fleetSize[index(turn)]; }
+    public double getRevenue(int turn) { return revenue[index(turn)]; }
+    public double getCosts(int turn) { return costs[index(turn)]; }
+
+    public double get(Column column, int turn) { return value(column, index(turn)); }
+
+    public TurnMetrics getMetrics(int turn) {
+        int i = index(turn);
+        return new TurnMetrics(turn, cash[i], fuelPrice[i], reputation[i], fleetSize[i], revenue[i], costs[i]);
+    }
+
+    /** Values of one column for turns {@code from..to} inclusive, clamped to the recorded range. */
+    public double[] range(Column column, int from, int to) {
+        int a = clamp(from), b = clamp(to);
+        if (size == 0 || a > b) return new double[0];
+        double[] out = new double[b - a + 1];
+        for (int i = a; i <= b; i++) out[i - a] = value(column, i);
+        return out;
+    }
+
+    public List<TurnMetrics> rangeMetrics(int from, int to) {
+        int a = clamp(from), b = clamp(to);
+        List<TurnMetrics> out = new ArrayList<>(Math.max(0, b - a + 1));
+        for (int i = a; size > 0 && i <= b; i++) out.add(getMetrics(firstTurn + i));
+        return out;
+    }
+
+    /**
+     * Averages one column over {@code buckets} equal slices of turns {@code from..to},
+     * e.g. to draw a chart of a long run with one point per pixel.
+     */
+    public double[] downsample(Column column, int from, int to, int buckets) {
+        int a = clamp(from), b = clamp(to);
+        int n = b - a + 1;
+        if (size == 0 || n <= 0 || buckets <= 0) return new double[0];
+        if (buckets >= n) return range(column, firstTurn + a, firstTurn + b);
+        double[] out = new double[buckets];
+        for (int k = 0; k < buckets; k++) {
+            int lo = a + (int) ((long) n * k / buckets);
+            int hi = a + (int) ((long) n * (k + 1) / buckets);
+            double sum = 0;
+            for (int i = lo; i < hi; i++) sum += value(column, i);
+            out[k] = sum / (hi - lo);
+        }
+        return out;
+    }
+
+    void writeState(StateBuffer out) {
+        out.putInt(firstTurn);
+        out.putInt(size);
+        for (int i = 0; i < size; i++) {
+            out.putDouble(cash[i]);
+            out.putFloat(fuelPrice[i]);
+            out.putFloat(reputation[i]);
+            out.putInt(fleetSize[i]);
+            out.putFloat(revenue[i]);
+            out.putFloat(costs[i]);
+        }
+    }
+
+    void readState(StateBuffer in) {
+        int first = in.getInt();
+        int n = in.getInt();
+        for (int i = 0; i < n; i++) {
+            record(first + i, in.getDouble(), in.getFloat(), in.getFloat(), in.getInt(), in.getFloat(), in.getFloat());
+        }
+    }
+
+    private double value(Column column, int i) {
+        switch (column) {
+            case CASH: return cash[i];
+            case FUEL_PRICE: return fuelPrice[i];
+            case REPUTATION: return reputation[i];
+            case FLEET_SIZE: return fleetSize[i];
+            case REVENUE: return revenue[i];
+            case COSTS: return costs[i];
+            default: throw new IllegalArgumentException(column.name());
+        }
+    }
+
+    private int index(int turn) {
+        if (!contains(turn)) throw new IndexOutOfBoundsException("No history for turn " + turn);
+        return turn - firstTurn;
+    }
+
+    private int clamp(int turn) {
+        return Math.max(0, Math.min(size - 1, turn - firstTurn));
+    }
+
+    private void copyRow(int from, int to) {
+        cash[to] = cash[from];
+        fuelPrice[to] = fuelPrice[from];
+        reputation[to] = reputation[from];
+        fleetSize[to] = fleetSize[from];
+        revenue[to] = 0;
+        costs[to] = 0;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= cash.length) return;
+        int cap = Math.max(needed, cash.length + (cash.length >> 1));
+        cash = Arrays.copyOf(cash, cap);
+        fuelPrice = Arrays.copyOf(fuelPrice, cap);
+        reputation = Arrays.copyOf(reputation, cap);
+        fleetSize = Arrays.copyOf(fleetSize, cap);
+        revenue = Arrays.copyOf(revenue, cap);
+        costs = Arrays.copyOf(costs, cap);
+    }
+}
@@ -8,5 +8,9 @@ import lombok.Getter;
 public class TurnMetrics {
     private final int turn;
     private final double cashBalance;
-    private final double fuelCostPerKm;
+    private final double fuelPrice;
+    private final double reputation;
+    private final int fleetSize;
+    private final double revenue;
+    private final double costs;
 }
@@ -0,0 +1,11 @@
+package com.transport.sim;
+
+/** The phases of {@link Simulator#runTurn()}, in the order they run. */
+public enum TurnPhase {
+    SALARIES,       // salaries and the bankruptcy check after them
+    FUEL_PRICE,
+    MARKET_REFRESH, // candidates, vehicle market and job market
+    MAINTENANCE,
+    JOBS,           // jobs finishing this turn
+    RANDOM_EVENTS   // random events, history and the final bankruptcy check
+}
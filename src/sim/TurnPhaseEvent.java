@@ -0,0 +1,16 @@
+package com.transport.sim;
+
+import jdk.jfr.*;
+
+@Name("com.transport.TurnPhase")
+@Label("Turn Phase")
+@Category({"Transport Manager", "Simulation"})
+@Description("One phase of a simulated turn")
+@StackTrace(false)
+final class TurnPhaseEvent extends Event {
+    @Label("Turn") int turn;
+    @Label("Phase") String phase;
+    @Label("Vehicles") int vehicles;
+    @Label("Drivers") int drivers;
+    @Label("Jobs In Transit") int activeJobs;
+}
@@ -0,0 +1,95 @@
+package com.transport.sim;
+
+import java.util.Arrays;
+
+/**
+ * Per-simulator probe around the phases of a turn. Whether it measures is
+ * decided once per turn: with statistics disabled and no JFR recording
+ * interested in the events, every call is a single field check.
+ */
+final class TurnProfiler {
+    private final TurnStatistics stats;
+    private final TurnPhaseEvent jfrProbe = new TurnPhaseEvent(); // never committed, only asks if JFR wants events
+    private final long[] phaseNanos = new long[TurnPhase.values().length];
+    private int phasesEnded; // bit per phase ordinal; a turn cut short leaves the later ones unset
+
+    private boolean timing, jfr;
+    private long turnStart, phaseStart;
+    private int turn, jobsCompleted, jobsFailed;
+    private boolean bankrupt;
+    private TurnPhaseEvent phaseEvent;
+    private TurnCompletedEvent turnEvent;
+
+    /** @param stats null for a simulator that reports nothing, e.g. a forecast fork */
+    TurnProfiler(TurnStatistics stats) { this.stats = stats; }
+
+    void startTurn(int turn) {
+        if (stats == null) return;
+        timing = stats.isEnabled();
+        jfr = jfrProbe.isEnabled();
+        if (!timing && !jfr) return;
+        this.turn = turn;
+        jobsCompleted = 0;
+        jobsFailed = 0;
+        bankrupt = false;
+        Arrays.fill(phaseNanos, 0);
+        phasesEnded = 0;
+        if (jfr) {
+            turnEvent = new TurnCompletedEvent();
+            turnEvent.begin();
+            phaseEvent = new TurnPhaseEvent();
+            phaseEvent.begin();
+        }
+        turnStart = phaseStart = System.nanoTime();
+    }
+
+    /** Marks the end of {@code phase}; the next phase starts now. */
+    void endPhase(TurnPhase phase, Company company) {
+        if (!timing && !jfr) return;
+        long now = System.nanoTime();
+        phaseNanos[phase.ordinal()] = now - phaseStart;
+        phasesEnded |= 1 << phase.ordinal();
+        phaseStart = now;
+        if (jfr) {
+            phaseEvent.end();
+            if (phaseEvent.shouldCommit()) {
+                phaseEvent.turn = turn;
+                phaseEvent.phase = phase.name();
+                phaseEvent.vehicles = company.getVehicleCount();
+                phaseEvent.drivers = company.getDriverCount();
+                phaseEvent.activeJobs = company.getActiveJobs().size();
+                phaseEvent.commit();
+            }
+            phaseEvent = new TurnPhaseEvent();
+            phaseEvent.begin();
+        }
+    }
+
+    void jobFinished(boolean success) {
+        if (success) jobsCompleted++;
+        else jobsFailed++;
+    }
+
+    void bankruptcy() { bankrupt = true; }
+
+    void endTurn(Company company) {
+        if (!timing && !jfr) return;
+        if (timing) stats.recordTurn(phaseNanos, phasesEnded, System.nanoTime() - turnStart, jobsCompleted, jobsFailed, bankrupt);
+        if (jfr) {
+            turnEvent.end();
+            if (turnEvent.shouldCommit()) {
+                turnEvent.turn = turn;
+                turnEvent.vehicles = company.getVehicleCount();
+                turnEvent.drivers = company.getDriverCount();
+                turnEvent.activeJobs = company.getActiveJobs().size();
+                turnEvent.jobsCompleted = jobsCompleted;
+                turnEvent.jobsFailed = jobsFailed;
+                turnEvent.bankrupt = bankrupt;
+                turnEvent.commit();
+            }
+            turnEvent = null;
+            phaseEvent = null; // the phase in progress was cut short, not reported
+        }
+        timing = jfr = false;
+    }
+}
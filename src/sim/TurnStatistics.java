@@ -0,0 +1,86 @@
+package com.transport.sim;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * Process-wide turn statistics, fed by every Simulator and published over JMX
+ * as {@value #OBJECT_NAME}. Off by default: while disabled a turn costs one
+ * volatile read. Enable it from a JMX console or with
+ * {@code -Dtransport.profiling=true}; JFR events are emitted independently,
+ * whenever a recording has them enabled.
+ */
+public final class TurnStatistics implements TurnStatisticsMXBean {
+    public static final String OBJECT_NAME = "com.transport.sim:type=TurnStatistics";
+
+    private static final TurnStatistics INSTANCE = new TurnStatistics();
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (Exception | LinkageError e) {
+            // no JMX (e.g. a trimmed runtime), statistics are still readable in-process
+        }
+    }
+
+    private volatile boolean enabled = Boolean.getBoolean("transport.profiling");
+    private final LatencyWindow turnLatency = new LatencyWindow();
+    private final LatencyWindow[] phaseLatency = new LatencyWindow[TurnPhase.values().length];
+    private final LongAdder jobsCompleted = new LongAdder();
+    private final LongAdder jobsFailed = new LongAdder();
+    private final LongAdder bankruptcies = new LongAdder();
+
+    private TurnStatistics() {
+        for (int i = 0; i < phaseLatency.length; i++) phaseLatency[i] = new LatencyWindow();
+    }
+
+    public static TurnStatistics get() { return INSTANCE; }
+
+    @Override public boolean isEnabled() { return enabled; }
+    @Override public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    /** @param phasesEnded bit per phase ordinal that ran to its end; only those are recorded */
+    void recordTurn(long[] phaseNanos, int phasesEnded, long totalNanos, int completed, int failed, boolean bankrupt) {
+        turnLatency.record(totalNanos);
+        for (int i = 0; i < phaseNanos.length; i++) {
+            if ((phasesEnded & 1 << i) != 0) phaseLatency[i].record(phaseNanos[i]);
+        }
+        if (completed > 0) jobsCompleted.add(completed);
+        if (failed > 0) jobsFailed.add(failed);
+        if (bankrupt) bankruptcies.increment();
+    }
+
+    @Override public long getTurns() { return turnLatency.getCount(); }
+    @Override public long getJobsCompleted() { return jobsCompleted.sum(); }
+    @Override public long getJobsFailed() { return jobsFailed.sum(); }
+    @Override public long getBankruptcies() { return bankruptcies.sum(); }
+
+    @Override public double getTurnP50Micros() { return LatencyWindow.percentileMicros(turnLatency.snapshot(), 0.50); }
+    @Override public double getTurnP99Micros() { return LatencyWindow.percentileMicros(turnLatency.snapshot(), 0.99); }
+    @Override public double getTurnMaxMicros() { return LatencyWindow.percentileMicros(turnLatency.snapshot(), 1.0); }
+
+    @Override
+    public List<PhaseLatency> getPhaseLatencies() {
+        List<PhaseLatency> out = new ArrayList<>(phaseLatency.length);
+        for (TurnPhase phase : TurnPhase.values()) {
+            LatencyWindow w = phaseLatency[phase.ordinal()];
+            long[] sorted = w.snapshot();
+            out.add(new PhaseLatency(phase.name(), w.getCount(),
+                    LatencyWindow.percentileMicros(sorted, 0.50),
+                    LatencyWindow.percentileMicros(sorted, 0.99),
+                    LatencyWindow.percentileMicros(sorted, 1.0)));
+        }
+        return out;
+    }
+
+    @Override
+    public void reset() {
+        turnLatency.reset();
+        for (LatencyWindow w : phaseLatency) w.reset();
+        jobsCompleted.reset();
+        jobsFailed.reset();
+        bankruptcies.reset();
+    }
+}
@@ -0,0 +1,23 @@
+package com.transport.sim;
+
+import java.util.List;
+
+/** Management interface of {@link TurnStatistics}. */
+public interface TurnStatisticsMXBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+
+    long getTurns();
+    long getJobsCompleted();
+    long getJobsFailed();
+    long getBankruptcies();
+
+    double getTurnP50Micros();
+    double getTurnP99Micros();
+    double getTurnMaxMicros();
+
+    /** One entry per {@link TurnPhase}, over the last turns. */
+    List<PhaseLatency> getPhaseLatencies();
+
+    void reset();
+}
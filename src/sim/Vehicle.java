@@ -1,44 +1,48 @@
 package com.transport.sim;
 
-import lombok.Getter;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 
+/**
+ * Handle onto a slot of a {@link Fleet}. A vehicle outside any company keeps
+ * its data in a one-slot store of its own until it is added to one.
+ */
 public class Vehicle {
-    @Getter private String name;
-    @Getter private double value;
-    @Getter private int condition; // 0-100
-    @Getter private int maintenanceIntervalKm;
-    @Getter private int kmSinceMaintenance = 0;
-    @Getter private double fuelConsumptionPerKm;
+    Fleet store;
+    int slot;
 
     private static final String[] PREFIX = {"Swift", "Reliant", "Iron", "Global", "Arctic", "Nomad", "Apex"};
     private static final String[] SUFFIX = {"Hauler", "Voyager", "Carrier", "Transport", "Link", "Titan"};
-    private static final Random RNG = new Random();
 
     public Vehicle(String name, double value, int condition, double fuelConsumptionPerKm) {
         // Procedural naming if no name is provided
-        this.name = (name == null || name.isEmpty()) ? generateRandomName() : name; 
-        this.value = value; 
-        this.condition = condition; 
-        this.fuelConsumptionPerKm = fuelConsumptionPerKm;
-        this.maintenanceIntervalKm = 500;
+        if (name == null || name.isEmpty()) name = generateRandomName(ThreadLocalRandom.current());
+        Fleet loose = new Fleet(null, 1);
+        loose.bind(this, loose.add(name, value, condition, fuelConsumptionPerKm, 0));
     }
 
-    public static String generateRandomName() {
-        return PREFIX[RNG.nextInt(PREFIX.length)] + " " + SUFFIX[RNG.nextInt(SUFFIX.length)] + "-" + (100 + RNG.nextInt(899));
+    Vehicle(Fleet store, int slot) {
+        this.store = store;
+        this.slot = slot;
     }
 
-    public void repair(int amount) { condition = Math.min(100, condition + amount); }
-    public void damage(int amount) { condition = Math.max(0, condition - amount); }
-    public void addKm(int km) { kmSinceMaintenance += km; }
-    public boolean isMaintenanceDue() { return kmSinceMaintenance >= maintenanceIntervalKm || condition < 50; }
-    
-    public double getMaintenanceCost() { 
-        return 200 + (100 * (100 - condition) / 100.0); 
+    public static String generateRandomName(RandomGenerator rng) {
+        return PREFIX[rng.nextInt(PREFIX.length)] + " " + SUFFIX[rng.nextInt(SUFFIX.length)] + "-" + (100 + rng.nextInt(899));
     }
 
-    public void performMaintenance() { 
-        kmSinceMaintenance = 0; 
-        repair(20); 
-    }
+    public String getName() { return store.name(slot); }
+    public double getValue() { return store.value(slot); }
+    public int getCondition() { return store.condition(slot); }
+    public int getMaintenanceIntervalKm() { return Fleet.MAINTENANCE_INTERVAL_KM; }
+    public int getKmSinceMaintenance() { return store.kmSinceMaintenance(slot); }
+    public double getFuelConsumptionPerKm() { return store.fuelConsumptionPerKm(slot); }
+
+    public void repair(int amount) { store.repair(slot, amount); }
+    public void damage(int amount) { store.damage(slot, amount); }
+    public void addKm(int km) { store.addKm(slot, km); }
+    public boolean isMaintenanceDue() { return store.isMaintenanceDue(slot); }
+    
+    public double getMaintenanceCost() { return store.maintenanceCost(slot); }
+
+    public void performMaintenance() { store.performMaintenance(slot); }
 }
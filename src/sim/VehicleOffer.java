@@ -1,6 +1,6 @@
 package com.transport.sim;
 
-import java.util.*;
+import java.util.random.RandomGenerator;
 
 import lombok.Getter;
 import lombok.Setter;
@@ -12,13 +12,12 @@ public class VehicleOffer {
     @Getter private double fuelConsumption;
 
     private static final String[] MODELS = {"Truck X","Truck Y","Van Z","Lorry 2000","Mover 7"};
-    private static final Random rng = new Random();
 
     public VehicleOffer(String name, int condition, double price, double fuelConsumption) {
         this.name = name; this.condition = condition; this.price = price; this.fuelConsumption = fuelConsumption;
     }
 
-    public static VehicleOffer randomOffer() {
+    public static VehicleOffer randomOffer(RandomGenerator rng) {
         String n = MODELS[rng.nextInt(MODELS.length)] + "-" + (100 + rng.nextInt(900));
         int cond = 40 + rng.nextInt(61); // 40-100
         double fc = 0.08 + rng.nextDouble() * 0.12; // 0.08 - 0.20
@@ -1,6 +1,6 @@
 package com.transport.ui;
 
-import com.transport.sim.Simulator;
+import com.transport.sim.GameSnapshot;
 import com.transport.score.ScoreService;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -14,7 +14,7 @@ import javafx.scene.text.Text;
 
 public class BankruptcyScreen {
 
-    public static VBox create(Simulator sim, Runnable onRestart) {
+    public static VBox create(GameSnapshot snapshot, Runnable onRestart) {
         VBox root = new VBox(20);
         root.setAlignment(Pos.CENTER);
         root.setPadding(new Insets(40));
@@ -26,22 +26,22 @@ public class BankruptcyScreen {
         title.setFill(Color.DARKRED);
 
         ScoreService scoreService = new ScoreService();
-        double finalScore = scoreService.calculateFinalScore(sim);
+        double finalScore = scoreService.calculateFinalScore(snapshot);
 
         VBox stats = new VBox(12);
         stats.setAlignment(Pos.CENTER);
         stats.setStyle("-fx-background-color: #f9f9f9; -fx-padding: 20; -fx-background-radius: 10;");
         
         stats.getChildren().addAll(
-            createStat("Przetrwano tur:", String.valueOf(sim.getTurn())),
-            createStat("Reputacja firmy:", String.format("%.1f", sim.getCompany().getReputation())),
+            createStat("Przetrwano tur:", String.valueOf(snapshot.getTurn())),
+            createStat("Reputacja firmy:", String.format("%.1f", snapshot.getReputation())),
             createStat("WYNIK KOŃCOWY:", String.format("%.0f pkt", finalScore))
         );
 
         Button btnSave = new Button("ZAPISZ SWÓJ WYNIK");
         btnSave.setPrefWidth(220);
         btnSave.setStyle("-fx-base: #27ae60; -fx-text-fill: white; -fx-font-weight: bold;");
-        btnSave.setOnAction(e -> SaveScoreDialog.show(sim, finalScore));
+        btnSave.setOnAction(e -> SaveScoreDialog.show(snapshot, finalScore));
 
         Button btnRestart = new Button("POWRÓT DO MENU");
         btnRestart.setPrefWidth(220);
@@ -0,0 +1,87 @@
+package com.transport.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import javafx.collections.ObservableListBase;
+
+/**
+ * Fixed-capacity ring buffer exposed as an ObservableList. Appending past the
+ * capacity drops the oldest entries; listeners get one change per batch
+ * (removed head + added tail), so the cost of an append does not depend on
+ * how long the session has been running. Must be used on the FX thread.
+ */
+class BoundedLog extends ObservableListBase<LogEntry> {
+    private LogEntry[] ring;
+    private int head, size;
+
+    BoundedLog(int capacity) { ring = new LogEntry[capacity]; }
+
+    int getCapacity() { return ring.length; }
+
+    @Override
+    public LogEntry get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return ring[(head + index) % ring.length];
+    }
+
+    @Override
+    public int size() { return size; }
+
+    void appendAll(Collection<LogEntry> batch) {
+        if (batch.isEmpty()) return;
+        int cap = ring.length;
+        int overflow = Math.max(0, size + batch.size() - cap);
+        int dropped = Math.min(overflow, size);
+        List<LogEntry> removed = new ArrayList<>(dropped);
+        for (int i = 0; i < dropped; i++) removed.add(get(i));
+
+        int skip = Math.max(0, batch.size() - cap); // batch alone larger than the ring
+        int i = 0;
+        for (LogEntry e : batch) {
+            if (i++ < skip) continue;
+            if (size == cap) {
+                ring[head] = e;
+                head = (head + 1) % cap;
+            } else {
+                ring[(head + size) % cap] = e;
+                size++;
+            }
+        }
+
+        beginChange();
+        if (dropped > 0) nextRemove(0, removed);
+        int added = Math.min(batch.size(), cap);
+        nextAdd(size - added, size);
+        endChange();
+    }
+
+    /** Changes the retention, keeping the newest entries. */
+    void setCapacity(int capacity) {
+        if (capacity <= 0 || capacity == ring.length) return;
+        List<LogEntry> old = new ArrayList<>(this);
+        int keep = Math.min(size, capacity);
+        LogEntry[] next = new LogEntry[capacity];
+        for (int i = 0; i < keep; i++) next[i] = old.get(size - keep + i);
+        ring = next;
+        head = 0;
+        size = keep;
+
+        beginChange();
+        nextRemove(0, old);
+        nextAdd(0, size);
+        endChange();
+    }
+
+    @Override
+    public void clear() {
+        List<LogEntry> old = new ArrayList<>(this);
+        Arrays.fill(ring, null);
+        head = 0;
+        size = 0;
+        beginChange();
+        nextRemove(0, old);
+        endChange();
+    }
+}
@@ -0,0 +1,130 @@
+package com.transport.ui;
+
+import com.transport.sim.*;
+import com.transport.sim.GameSnapshot.DriverInfo;
+import com.transport.sim.GameSnapshot.VehicleInfo;
+import java.util.ArrayList;
+import java.util.List;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+public class DriversView extends VBox {
+    private static final String NO_VEHICLE = "Brak pojazdu";
+
+    private final TurnRunner runner;
+    private final CommandQueue commands;
+    private final EventLogView log;
+    private final LiveList<DriverInfo> drivers = new LiveList<>(DriverRow::new, DriverInfo::isSame);
+    private final VBox candidateList = new VBox(5);
+    private List<DriverCandidate> shownCandidates;
+
+    public DriversView(TurnRunner runner, EventLogView log) {
+        super(10);
+        this.runner = runner;
+        this.commands = runner.getCommands();
+        this.log = log;
+        getChildren().addAll(UIFactory.header("Zespół Kierowców"), drivers.getView(), new Separator(),
+                UIFactory.header("Giełda Pracy (Kandydaci)"), candidateList);
+    }
+
+    public void refresh() {
+        GameSnapshot s = runner.getSnapshot();
+        drivers.sync(s.getDrivers());
+        refreshCandidates(s.getCandidates());
+    }
+
+    private void refreshCandidates(List<DriverCandidate> candidates) {
+        if (candidates.equals(shownCandidates)) return;
+        shownCandidates = candidates;
+        candidateList.getChildren().clear();
+        for (DriverCandidate c : candidates) {
+            HBox row = new HBox(15);
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.getChildren().addAll(new Label(c.getName()), new Label("Skill: " + c.getSkill()), 
+                UIFactory.button("Zatrudnij", () -> commands.hire(c)));
+            candidateList.getChildren().add(row);
+        }
+    }
+
+    private class DriverRow extends LiveList.Row<DriverInfo> {
+        private final HBox row = new HBox(15);
+        private final Label name = new Label();
+        private final Label skill = new Label();
+        private final ComboBox<String> vehCombo = new ComboBox<>();
+        private final List<VehicleInfo> choices = new ArrayList<>(); // parallel to vehCombo items
+        private final Button btnAssign = new Button("Zmień");
+        private final Button btnTrain = new Button("Szkol ($50)");
+        private DriverInfo shown;
+        private VehicleInfo shownVehicle;
+
+        DriverRow() {
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.setStyle("-fx-background-color: white; -fx-padding: 8; -fx-border-color: #ddd;");
+            name.setPrefWidth(120);
+            name.setStyle("-fx-font-weight: bold");
+
+            // The vehicle list is only built when the user opens the combo
+            vehCombo.setOnShowing(e -> fillChoices());
+            // render() leaves an open combo alone, catch up on what changed meanwhile
+            vehCombo.setOnHidden(e -> {
+                DriverInfo d = getItem();
+                if (d != null && !isEmpty()) render(d);
+            });
+
+            btnAssign.setOnAction(e -> {
+                DriverInfo d = getItem();
+                int idx = vehCombo.getSelectionModel().getSelectedIndex();
+                if (d == null || idx < 0 || idx >= choices.size()) return;
+                commands.assignVehicle(d, choices.get(idx));
+            });
+
+            btnTrain.setOnAction(e -> {
+                DriverInfo d = getItem();
+                if (d != null) commands.train(d);
+            });
+
+            row.getChildren().addAll(name, skill, new Label("Pojazd:"), vehCombo, btnAssign, btnTrain);
+        }
+
+        private void fillChoices() {
+            DriverInfo d = getItem();
+            if (d == null) return;
+            choices.clear();
+            choices.add(null);
+            List<String> names = new ArrayList<>();
+            names.add(NO_VEHICLE);
+            int selected = 0;
+            for (VehicleInfo v : runner.getSnapshot().getVehiclesFor(d)) {
+                if (v.isSame(d.getVehicle())) selected = choices.size();
+                choices.add(v);
+                names.add(v.getName());
+            }
+            vehCombo.getItems().setAll(names);
+            vehCombo.getSelectionModel().select(selected);
+        }
+
+        @Override
+        Node render(DriverInfo d) {
+            name.setText(d.getName());
+            skill.setText("Skill: " + d.getSkill());
+            VehicleInfo current = d.getVehicle();
+            boolean sameVehicle = current == null ? shownVehicle == null : current.isSame(shownVehicle);
+            if (!vehCombo.isShowing() && (!d.isSame(shown) || !sameVehicle)) {
+                shown = d;
+                shownVehicle = current;
+                choices.clear();
+                choices.add(current);
+                vehCombo.getItems().setAll(current != null ? current.getName() : NO_VEHICLE);
+                vehCombo.getSelectionModel().select(0);
+            }
+            boolean busy = d.isBusy();
+            vehCombo.setDisable(busy);
+            btnAssign.setDisable(busy);
+            btnAssign.setText(busy ? "W trasie" : "Zmień");
+            return row;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.transport.ui;
+
+import com.transport.sim.TurnEvents;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javafx.application.Platform;
+import javafx.collections.transformation.FilteredList;
+import javafx.geometry.Insets;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * Event log panel: a bounded ring buffer shown in a virtualized ListView with a
+ * category filter. Appends may come from any thread; they are queued and
+ * flushed to the list once per FX pulse.
+ */
+public class EventLogView extends VBox {
+    public static final int DEFAULT_RETENTION = 2000;
+
+    private final BoundedLog entries;
+    private final FilteredList<LogEntry> filtered;
+    private final ListView<LogEntry> list;
+    private final Queue<LogEntry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    public EventLogView() { this(DEFAULT_RETENTION); }
+
+    public EventLogView(int retention) {
+        super(5);
+        entries = new BoundedLog(retention);
+        filtered = new FilteredList<>(entries);
+        list = new ListView<>(filtered);
+        list.setCellFactory(lv -> new ListCell<>() {
+            {
+                setWrapText(true);
+                prefWidthProperty().bind(lv.widthProperty().subtract(20));
+            }
+
+            @Override
+            protected void updateItem(LogEntry item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : item.getText());
+            }
+        });
+        VBox.setVgrow(list, Priority.ALWAYS);
+
+        ComboBox<LogCategory> filter = new ComboBox<>();
+        filter.getItems().setAll(LogCategory.values());
+        filter.setValue(LogCategory.ALL);
+        filter.setOnAction(e -> {
+            LogCategory c = filter.getValue() == null ? LogCategory.ALL : filter.getValue();
+            filtered.setPredicate(c == LogCategory.ALL ? null : c::matches);
+        });
+
+        HBox top = new HBox(8, new Label("Dziennik zdarzeń:"), filter);
+        setPadding(new Insets(10));
+        getChildren().addAll(top, list);
+    }
+
+    /** Plain player/system message. */
+    public void append(String text) { append(LogEntry.text(LogCategory.PLAYER, text)); }
+
+    /** Copies the events of the last turn; the buffer itself is reused by the simulator. */
+    public void appendTurn(TurnEvents events) {
+        for (int i = 0; i < events.getSize(); i++) {
+            pending.add(LogEntry.event(events.getType(i), events.getSubject(i), events.getAmount(i), events.getExtra(i)));
+        }
+        scheduleFlush();
+    }
+
+    public void append(LogEntry entry) {
+        pending.add(entry);
+        scheduleFlush();
+    }
+
+    public int getRetention() { return entries.getCapacity(); }
+
+    public void setRetention(int retention) {
+        runOnFx(() -> entries.setCapacity(retention));
+    }
+
+    public void clear() {
+        pending.clear();
+        runOnFx(entries::clear);
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) Platform.runLater(this::flush);
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        List<LogEntry> batch = new ArrayList<>();
+        for (LogEntry e; (e = pending.poll()) != null; ) batch.add(e);
+        if (batch.isEmpty()) return;
+        entries.appendAll(batch);
+        if (!filtered.isEmpty()) list.scrollTo(filtered.size() - 1);
+    }
+
+    private static void runOnFx(Runnable r) {
+        if (Platform.isFxApplicationThread()) r.run();
+        else Platform.runLater(r);
+    }
+}
@@ -0,0 +1,108 @@
+package com.transport.ui;
+
+import com.transport.sim.*;
+import com.transport.sim.GameSnapshot.VehicleInfo;
+import java.util.List;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+public class FleetView extends VBox {
+    private final TurnRunner runner;
+    private final CommandQueue commands;
+    private final EventLogView log;
+    private final LiveList<VehicleInfo> fleet = new LiveList<>(VehicleRow::new, VehicleInfo::isSame);
+    private final VBox marketList = new VBox(5);
+    private List<VehicleOffer> shownMarket;
+
+    public FleetView(TurnRunner runner, EventLogView log) {
+        super(10);
+        this.runner = runner;
+        this.commands = runner.getCommands();
+        this.log = log;
+        getChildren().addAll(UIFactory.header("Twoja Flota"), fleet.getView(), new Separator(),
+                UIFactory.header("Rynek Pojazdów"), marketList);
+    }
+
+    public void refresh() {
+        GameSnapshot s = runner.getSnapshot();
+        fleet.sync(s.getVehicles());
+        refreshMarket(s.getVehicleMarket());
+    }
+
+    // The market holds a handful of offers, rebuilding it is cheap
+    private void refreshMarket(List<VehicleOffer> market) {
+        if (market.equals(shownMarket)) return;
+        shownMarket = market;
+        marketList.getChildren().clear();
+        for (VehicleOffer offer : market) {
+            HBox row = new HBox(15);
+            row.setAlignment(Pos.CENTER_LEFT);
+            Label info = new Label(String.format("%s | Stan: %d%% | %.2f u/km | Cena: %.2f", 
+                offer.getName(), offer.getCondition(), offer.getFuelConsumption(), offer.getPrice()));
+            info.setPrefWidth(400);
+            
+            Button buy = new Button("Kup");
+            buy.setOnAction(e -> UIFactory.onFx(commands.buyVehicle(offer), ok ->
+                log.append(ok ? "Zakupiono " + offer.getName() + "\n" : "Brak środków!\n")));
+            row.getChildren().addAll(info, buy);
+            marketList.getChildren().add(row);
+        }
+    }
+
+    private class VehicleRow extends LiveList.Row<VehicleInfo> {
+        private final HBox row = new HBox(15);
+        private final Label name = new Label();
+        private final Label condition = new Label();
+        private final ProgressBar conditionBar = new ProgressBar();
+        private final Label fuel = new Label();
+        private final Label service = new Label();
+        private final Button btnRepair = new Button("Napraw (-100)");
+        private final Button btnSell = new Button("Sprzedaj");
+
+        VehicleRow() {
+            row.setAlignment(Pos.CENTER_LEFT);
+            row.setStyle("-fx-border-color: #ddd; -fx-padding: 8; -fx-background-color: white;");
+            name.setFont(Font.font("System", FontWeight.BOLD, 12));
+            name.setPrefWidth(120);
+            VBox stats = new VBox(fuel, service);
+            stats.setPrefWidth(150);
+
+            btnRepair.setOnAction(e -> {
+                VehicleInfo v = getItem();
+                if (v == null) return;
+                UIFactory.onFx(commands.repair(v), ok -> {
+                    if (!ok) log.append("Brak środków na naprawę!\n");
+                });
+            });
+
+            btnSell.setOnAction(e -> {
+                VehicleInfo v = getItem();
+                if (v == null) return;
+                UIFactory.onFx(commands.sellVehicle(v), price -> {
+                    if (price > 0) log.append(String.format("Sprzedano %s za %.2f\n", v.getName(), price));
+                });
+            });
+
+            row.getChildren().addAll(name, condition, conditionBar, stats, btnRepair, btnSell);
+        }
+
+        @Override
+        Node render(VehicleInfo v) {
+            name.setText(v.getName());
+            condition.setText("Stan: " + v.getCondition() + "%");
+            conditionBar.setProgress(v.getCondition() / 100.0);
+            conditionBar.setStyle(v.getCondition() < 50 ? "-fx-accent: red;" : "-fx-accent: green;");
+            fuel.setText(String.format("Spalanie: %.2f", v.getFuelConsumptionPerKm()));
+            service.setText(String.format("Konserwacja za: %d km", v.getMaintenanceIntervalKm() - v.getKmSinceMaintenance()));
+            boolean busy = v.isBusy();
+            btnSell.setDisable(busy);
+            btnSell.setText(busy ? "W trasie" : "Sprzedaj");
+            return row;
+        }
+    }
+}
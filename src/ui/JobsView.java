@@ -0,0 +1,86 @@
+package com.transport.ui;
+
+import com.transport.sim.*;
+import com.transport.sim.GameSnapshot.DriverInfo;
+import com.transport.sim.GameSnapshot.JobInfo;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.util.StringConverter;
+
+public class JobsView extends VBox {
+    private final TurnRunner runner;
+    private final CommandQueue commands;
+    private final EventLogView log;
+    private final LiveList<JobInfo> jobs = new LiveList<>(JobRow::new, JobInfo::isSame);
+
+    public JobsView(TurnRunner runner, EventLogView log) {
+        super(10);
+        this.runner = runner;
+        this.commands = runner.getCommands();
+        this.log = log;
+        Button btnAuto = UIFactory.button("Auto-przydział", () -> UIFactory.onFx(commands.autoDispatch(), started ->
+            log.append(started == 0 ? "Brak opłacalnych przydziałów\n" : "Automatycznie przydzielono zleceń: " + started + "\n")));
+        HBox top = new HBox(15, UIFactory.header("Dostępne Zlecenia"), btnAuto);
+        top.setAlignment(Pos.CENTER_LEFT);
+        getChildren().addAll(top, jobs.getView());
+    }
+
+    public void refresh() {
+        jobs.sync(runner.getSnapshot().getJobs());
+    }
+
+    private class JobRow extends LiveList.Row<JobInfo> {
+        private final HBox activeRow = new HBox(12);
+        private final Label activeLabel = new Label();
+        private final HBox openRow = new HBox(12);
+        private final Label title = new Label();
+        private final Label distance = new Label();
+        private final ComboBox<DriverInfo> drvCombo = new ComboBox<>();
+        private final Button btnStart = new Button("Start");
+        private JobInfo shown; // job the combo selection belongs to
+
+        JobRow() {
+            activeRow.setAlignment(Pos.CENTER_LEFT);
+            activeRow.setPadding(new Insets(5));
+            activeRow.setStyle("-fx-background-color: #e8f5e9;");
+            activeRow.getChildren().add(activeLabel);
+
+            VBox details = new VBox(title, distance);
+            details.setPrefWidth(250);
+            drvCombo.setPromptText("Wybierz kierowcę...");
+            drvCombo.setConverter(new StringConverter<>() {
+                @Override public String toString(DriverInfo d) { return d == null ? "" : d.getName(); }
+                @Override public DriverInfo fromString(String s) { return null; }
+            });
+            // Idle drivers are looked up only when the combo is opened
+            drvCombo.setOnShowing(e -> drvCombo.getItems().setAll(runner.getSnapshot().getIdleCrews()));
+            btnStart.setOnAction(e -> {
+                JobInfo j = getItem();
+                DriverInfo d = drvCombo.getValue();
+                if (j != null && d != null) commands.startJob(j, d);
+            });
+            openRow.setAlignment(Pos.CENTER_LEFT);
+            openRow.setPadding(new Insets(5));
+            openRow.getChildren().addAll(details, drvCombo, btnStart);
+        }
+
+        @Override
+        Node render(JobInfo j) {
+            if (j.isAssigned()) {
+                activeLabel.setText(j.getTitle() + " | " + j.getDriverName() + " [ETA: " + j.getTurnsRemaining() + "]");
+                return activeRow;
+            }
+            title.setText(j.getTitle());
+            distance.setText(j.getRoute() != null ? "Trasa: " + j.getRoute() : "Dystans: " + j.getRouteLength() + " km");
+            if (!j.isSame(shown)) {
+                shown = j;
+                drvCombo.setValue(null);
+            }
+            return openRow;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.transport.ui;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Node;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * Virtualized list backed by an observable copy of a simulation list.
+ * The ListView only creates cells for visible rows. sync() replaces all items
+ * only when rows were added, removed or reordered; otherwise it replaces just
+ * the rows whose contents changed, so only their cells render again and a
+ * refresh never builds nodes for off-screen entities.
+ */
+class LiveList<T> {
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final ListView<T> view = new ListView<>(items);
+    private final BiPredicate<T, T> same;
+
+    /** @param same whether two rows describe the same entity, possibly at different times */
+    LiveList(Supplier<Row<T>> rowFactory, BiPredicate<T, T> same) {
+        this.same = same;
+        view.setCellFactory(lv -> rowFactory.get());
+        VBox.setVgrow(view, Priority.ALWAYS);
+    }
+
+    ListView<T> getView() { return view; }
+
+    void sync(List<T> source) {
+        if (!sameEntities(source)) {
+            items.setAll(source);
+            return;
+        }
+        // a single replaced item only marks its own cell dirty
+        for (int i = 0; i < source.size(); i++) {
+            T row = source.get(i);
+            if (items.get(i) != row && !items.get(i).equals(row)) items.set(i, row);
+        }
+    }
+
+    private boolean sameEntities(List<T> source) {
+        if (items.size() != source.size()) return false;
+        for (int i = 0; i < source.size(); i++) if (!same.test(items.get(i), source.get(i))) return false;
+        return true;
+    }
+
+    /** A reusable row; subclasses build their nodes once and update them in render(). */
+    abstract static class Row<T> extends ListCell<T> {
+        @Override
+        protected void updateItem(T item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(null);
+            if (empty || item == null) setGraphic(null);
+            else setGraphic(render(item));
+        }
+
+        /** Updates the row nodes for {@code item} and returns the graphic to show. */
+        abstract Node render(T item);
+    }
+}
@@ -0,0 +1,38 @@
+package com.transport.ui;
+
+import com.transport.sim.TurnEventType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum LogCategory {
+    ALL("Wszystkie"),
+    SYSTEM("Tura i system"),
+    FINANCE("Finanse"),
+    MARKET("Rynek"),
+    MAINTENANCE("Serwis"),
+    JOBS("Zlecenia"),
+    INCIDENTS("Zdarzenia"),
+    PLAYER("Akcje gracza");
+
+    private final String label;
+
+    public static LogCategory of(TurnEventType type) {
+        switch (type) {
+            case TURN_STARTED: case GAME_ALREADY_OVER: case BANKRUPTCY_AFTER_SALARIES:
+            case BANKRUPTCY: case SIMULATION_ERROR:
+                return SYSTEM;
+            case SALARIES_PAID: case CUSTOMER_BONUS: return FINANCE;
+            case FUEL_PRICE_CHANGED: case FUEL_SHOCK: return MARKET;
+            case MAINTENANCE_DONE: case MAINTENANCE_SKIPPED: return MAINTENANCE;
+            case JOB_SUCCEEDED: case JOB_FAILED: return JOBS;
+            default: return INCIDENTS;
+        }
+    }
+
+    public boolean matches(LogEntry e) { return this == ALL || e.getCategory() == this; }
+
+    @Override
+    public String toString() { return label; }
+}
@@ -0,0 +1,38 @@
+package com.transport.ui;
+
+import com.transport.sim.TurnEventType;
+import com.transport.sim.TurnEvents;
+import lombok.Getter;
+
+/**
+ * One line of the event log. Simulation events keep their raw payload and are
+ * formatted only when a cell actually shows them.
+ */
+public class LogEntry {
+    @Getter private final LogCategory category;
+    private final TurnEventType type; // null for plain text entries
+    private final Object subject;
+    private final double amount, extra;
+    private String text;
+
+    private LogEntry(LogCategory category, TurnEventType type, Object subject, double amount, double extra, String text) {
+        this.category = category; this.type = type; this.subject = subject;
+        this.amount = amount; this.extra = extra; this.text = text;
+    }
+
+    public static LogEntry event(TurnEventType type, Object subject, double amount, double extra) {
+        return new LogEntry(LogCategory.of(type), type, subject, amount, extra, null);
+    }
+
+    public static LogEntry text(LogCategory category, String text) {
+        return new LogEntry(category, null, null, 0, 0, text.strip());
+    }
+
+    public String getText() {
+        if (text == null) text = TurnEvents.render(type, subject, amount, extra).strip();
+        return text;
+    }
+
+    @Override
+    public String toString() { return getText(); }
+}
@@ -1,8 +1,10 @@
 package com.transport.ui;
 
+import com.transport.score.LeaderboardCache;
 import com.transport.score.ScoreRecord;
 import com.transport.score.ScoreService;
-import com.transport.sim.Simulator;
+import com.transport.sim.GameSnapshot;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -12,11 +14,15 @@ import javafx.stage.FileChooser;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 public class SaveScoreDialog {
-    public static void show(Simulator sim, double score) {
+    public static void show(GameSnapshot snapshot, double score) {
         Stage stage = new Stage();
         stage.initModality(Modality.APPLICATION_MODAL);
         stage.setTitle("Zapisz Wynik");
@@ -55,21 +61,34 @@ public class SaveScoreDialog {
             
             File file = fc.showSaveDialog(stage);
             if (file != null) {
-                try {
-                    ScoreRecord record = ScoreRecord.builder()
-                            .playerName(name)
-                            .finalScore(score)
-                            .timestamp(LocalDateTime.now().toString())
-                            .totalCash(sim.getCompany().getCash())
-                            .reputation(sim.getCompany().getReputation())
-                            .vehiclesOwned(sim.getCompany().getVehicles().size())
-                            .turnsReached(sim.getTurn())
-                            .build();
-                    new ScoreService().saveScore(record, file);
-                    stage.close();
-                } catch (Exception ex) {
-                    new Alert(Alert.AlertType.ERROR, "Błąd: " + ex.getMessage()).show();
-                }
+                ScoreRecord record = ScoreRecord.builder()
+                        .playerName(name)
+                        .finalScore(score)
+                        .timestamp(LocalDateTime.now().toString())
+                        .totalCash(snapshot.getCash())
+                        .reputation(snapshot.getReputation())
+                        .vehiclesOwned(snapshot.getVehicles().size())
+                        .turnsReached(snapshot.getTurn())
+                        .build();
+                btnSave.setDisable(true);
+                // File write, fsyncs and index rewrite stay off the FX thread
+                CompletableFuture.runAsync(() -> {
+                    try {
+                        new ScoreService().saveScore(record, file);
+                        LeaderboardCache.shared().submit(record, file.toPath());
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }).whenCompleteAsync((ok, ex) -> {
+                    if (ex == null) {
+                        stage.close();
+                        return;
+                    }
+                    btnSave.setDisable(false);
+                    Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                    if (cause instanceof UncheckedIOException) cause = cause.getCause();
+                    new Alert(Alert.AlertType.ERROR, "Błąd: " + cause.getMessage()).show();
+                }, Platform::runLater);
             }
         });
 
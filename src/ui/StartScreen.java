@@ -2,9 +2,12 @@ package com.transport.ui;
 
 import com.transport.sim.GameSettings;
 import com.transport.sim.GameSettings.Difficulty;
+import com.transport.sim.SaveGame;
+import com.transport.sim.Simulator;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
@@ -12,7 +15,9 @@ import javafx.scene.effect.DropShadow;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 
+import java.io.File;
 import java.util.function.Consumer;
 
 public class StartScreen {
@@ -21,7 +26,7 @@ public class StartScreen {
     private TextField nameField;
     private VBox root;
 
-    public Region createContent(Consumer<GameSettings> onStartGame) {
+    public Region createContent(Consumer<GameSettings> onStartGame, Consumer<Simulator> onLoadGame) {
         root = new VBox(30);
         root.setAlignment(Pos.CENTER);
         root.setPadding(new Insets(40));
@@ -71,7 +76,26 @@ public class StartScreen {
             onStartGame.accept(new GameSettings(name, selectedDifficulty));
         });
 
-        root.getChildren().addAll(titleBox, inputBox, diffLabel, cardsContainer, startButton);
+        Button loadButton = new Button("WCZYTAJ GRĘ");
+        loadButton.setPrefWidth(300);
+        loadButton.setOnAction(e -> {
+            FileChooser fc = new FileChooser();
+            fc.setTitle("Wczytaj grę");
+            fc.setInitialDirectory(new File("."));
+            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Zapisy gry", "*" + SaveGame.EXTENSION));
+            File file = fc.showOpenDialog(root.getScene().getWindow());
+            if (file == null) return;
+            try {
+                onLoadGame.accept(SaveGame.read(file.toPath()).restore());
+            } catch (Exception ex) {
+                new Alert(Alert.AlertType.ERROR, "Nie udało się wczytać gry: " + ex.getMessage()).show();
+            }
+        });
+
+        VBox actions = new VBox(10, startButton, loadButton);
+        actions.setAlignment(Pos.CENTER);
+
+        root.getChildren().addAll(titleBox, inputBox, diffLabel, cardsContainer, actions);
         
         // Initial selection highlight
         updateSelectionVisuals();
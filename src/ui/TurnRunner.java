@@ -0,0 +1,157 @@
+package com.transport.ui;
+
+import com.transport.sim.AutoSaver;
+import com.transport.sim.CommandQueue;
+import com.transport.sim.Forecaster;
+import com.transport.sim.GameSnapshot;
+import com.transport.sim.Simulator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javafx.animation.AnimationTimer;
+
+/**
+ * Owns the simulation thread, the only thread that touches the simulator.
+ * Turns run there back to back; player commands are queued in a
+ * {@link CommandQueue} and run on the same thread between turns, or straight
+ * away when no run is in progress. After each turn or batch of commands the
+ * thread publishes an immutable {@link GameSnapshot}, which the FX side picks
+ * up at most once per frame from an AnimationTimer. A new snapshot is only
+ * taken once the FX side has picked up the previous one, so a fast run does
+ * not copy the game more often than the screen can show it.
+ */
+public class TurnRunner {
+    public static final int UNTIL_EVENT_LIMIT = 1000; // safety cap for "until event"
+
+    private final Simulator sim;
+    private final EventLogView log;
+    private final CommandQueue commands;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "simulation");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicBoolean taken = new AtomicBoolean(); // FX has picked up the last snapshot
+    private final AnimationTimer frames;
+
+    private volatile GameSnapshot snapshot;
+    private GameSnapshot shown; // FX thread only
+    private volatile boolean running, cancelled, finished;
+    private volatile int done, target;
+    private Consumer<GameSnapshot> onFrame = s -> {};
+    private Runnable onFinished = () -> {};
+    private volatile AutoSaver autoSaver;
+    private volatile Forecaster forecaster;
+
+    /** Must be created before the simulation thread exists, i.e. on the FX thread with a fresh simulator. */
+    public TurnRunner(Simulator sim, EventLogView log) {
+        this.sim = sim;
+        this.log = log;
+        this.snapshot = GameSnapshot.capture(sim);
+        this.commands = new CommandQueue(sim);
+        commands.setOnSubmit(() -> executor.execute(this::runCommands));
+        this.frames = new AnimationTimer() {
+            @Override
+            public void handle(long now) { pulse(); }
+        };
+        frames.start();
+    }
+
+    /** The only way for the UI to change the game. */
+    public CommandQueue getCommands() { return commands; }
+
+    /** Latest published state, safe to read from any thread. */
+    public GameSnapshot getSnapshot() { return snapshot; }
+
+    /** Called on the FX thread, at most once per frame, with each newly published snapshot. */
+    public void setOnFrame(Consumer<GameSnapshot> onFrame) { this.onFrame = onFrame; }
+
+    /** Called on the FX thread when a run ends, after the frame showing its last turn. */
+    public void setOnFinished(Runnable onFinished) { this.onFinished = onFinished; }
+
+    /** Saver notified on the simulation thread after every turn. */
+    public void setAutoSaver(AutoSaver autoSaver) { this.autoSaver = autoSaver; }
+
+    /**
+     * Forecaster started on the simulation thread when a run ends, so a single
+     * step gets a fresh forecast and a fast-forward only one at its end; it
+     * runs on its own threads.
+     */
+    public void setForecaster(Forecaster forecaster) { this.forecaster = forecaster; }
+
+    public boolean isRunning() { return running; }
+    public int getDone() { return done; }
+    public int getTarget() { return target; }
+
+    public void start(int turns) { start(turns, false); }
+
+    /**
+     * Starts advancing {@code turns} turns, or until a turn with a notable event
+     * when {@code untilEvent} is set. Ignored while a run is in progress.
+     */
+    public void start(int turns, boolean untilEvent) {
+        if (running || snapshot.isGameOver()) return;
+        running = true;
+        cancelled = false;
+        finished = false;
+        done = 0;
+        target = turns;
+        executor.execute(() -> {
+            try {
+                for (int i = 0; i < turns; i++) {
+                    commands.runPending();
+                    if (cancelled || sim.isGameOver()) break;
+                    sim.runTurn();
+                    log.appendTurn(sim.getEvents());
+                    boolean stop = untilEvent && sim.getEvents().hasNotable();
+                    AutoSaver saver = autoSaver;
+                    if (saver != null) saver.afterTurn(sim);
+                    done = i + 1;
+                    if (stop) break;
+                    if (taken.get()) publish();
+                }
+                commands.runPending();
+                Forecaster f = forecaster;
+                if (f != null && done > 0) f.afterTurn(sim);
+            } finally {
+                publish();
+                finished = true;
+            }
+        });
+    }
+
+    public void cancel() { cancelled = true; }
+
+    public void shutdown() {
+        cancelled = true;
+        frames.stop();
+        executor.shutdownNow();
+        if (autoSaver != null) autoSaver.shutdown();
+        if (forecaster != null) forecaster.shutdown();
+    }
+
+    // Idle wake-up after a submit; during a run the turn loop gets there first
+    private void runCommands() {
+        if (commands.runPending()) publish();
+    }
+
+    private void publish() {
+        taken.set(false);
+        snapshot = GameSnapshot.capture(sim, snapshot);
+    }
+
+    private void pulse() {
+        boolean end = finished; // read before the snapshot, which is published first
+        GameSnapshot s = snapshot;
+        if (s != shown) {
+            shown = s;
+            taken.set(true);
+            onFrame.accept(s);
+        }
+        if (running && end) {
+            running = false;
+            onFinished.run();
+        }
+    }
+}
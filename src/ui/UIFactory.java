@@ -2,7 +2,7 @@ package com.transport.ui;
 
 import com.transport.sim.*;
 import com.transport.score.*;
-import javafx.concurrent.Task;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
@@ -13,16 +13,46 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.stage.FileChooser;
 
 import java.io.File;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class UIFactory {
+    private static final int AUTOSAVE_INTERVAL = 10; // turns
 
     public static BorderPane createMainUI(Simulator simulator, Runnable onRestart) {
         BorderPane root = new BorderPane();
 
+        // Log area
+        EventLogView log = new EventLogView();
+        log.setPrefWidth(300);
+        log.setStyle("-fx-border-color: #cccccc; -fx-border-width: 0 0 0 1;");
+
+        TurnRunner runner = new TurnRunner(simulator, log);
+        AutoSaver autoSaver = new AutoSaver(Paths.get(SaveGame.AUTOSAVE_FILE), AUTOSAVE_INTERVAL);
+        autoSaver.setOnError(ex -> log.append("Autozapis nieudany: " + ex.getMessage()));
+        runner.setAutoSaver(autoSaver);
+        Forecaster forecaster = new Forecaster();
+        runner.setForecaster(forecaster);
+        try {
+            simulator.getJournal().attach(Paths.get(Journal.LAST_GAME_FILE));
+        } catch (IOException ex) {
+            log.append("Nie można zapisywać dziennika gry: " + ex.getMessage());
+        }
+        LeaderboardCache leaderboard = LeaderboardCache.shared();
+        Runnable[] onLeaderboardChange = new Runnable[1];
+        Runnable restart = () -> {
+            runner.shutdown();
+            simulator.getJournal().close();
+            leaderboard.removeListener(onLeaderboardChange[0]);
+            onRestart.run();
+        };
+
         // Left navigation
         VBox nav = new VBox(10);
         nav.setPadding(new Insets(12));
@@ -41,9 +71,26 @@ public class UIFactory {
         btnEndGame.setStyle("-fx-base: #e74c3c; -fx-text-fill: white; -fx-font-weight: bold;");
         btnEndGame.setMaxWidth(Double.MAX_VALUE);
         btnEndGame.setOnAction(e -> {
-            double score = new ScoreService().calculateFinalScore(simulator);
-            SaveScoreDialog.show(simulator, score);
-            onRestart.run();
+            GameSnapshot s = runner.getSnapshot();
+            double score = new ScoreService().calculateFinalScore(s);
+            SaveScoreDialog.show(s, score);
+            restart.run();
+        });
+
+        Button btnSave = new Button("Zapisz grę");
+        btnSave.setMaxWidth(Double.MAX_VALUE);
+        btnSave.setOnAction(e -> {
+            FileChooser fc = new FileChooser();
+            fc.setTitle("Zapisz grę");
+            fc.setInitialFileName(simulator.getSettings().getCompanyName() + SaveGame.EXTENSION);
+            fc.getExtensionFilters().add(new FileChooser.ExtensionFilter("Zapisy gry", "*" + SaveGame.EXTENSION));
+            File file = fc.showSaveDialog(root.getScene().getWindow());
+            if (file == null) return;
+            // captured on the simulation thread, written on the autosave one
+            onFx(runner.getCommands().submit(SaveGame::capture), game -> {
+                autoSaver.save(game, file.toPath());
+                log.append("Zapisano grę (tura " + game.getTurn() + "): " + file.getName());
+            });
         });
 
         Button btnNext = new Button("NASTĘPNA TURA >");
@@ -51,80 +98,84 @@ public class UIFactory {
         btnNext.setPrefHeight(40);
         btnNext.setMaxWidth(Double.MAX_VALUE);
 
-        nav.getChildren().addAll(btnFleet, btnDrivers, btnJobs, btnReport, btnRanking, spacer, btnEndGame, btnNext);
-
-        // Log area
-        TextArea log = new TextArea();
-        log.setEditable(false);
-        log.setWrapText(true);
-        log.setPrefWidth(300);
-        VBox logBox = new VBox(5, new Label("Dziennik zdarzeń:"), log);
-        logBox.setPadding(new Insets(10));
-        logBox.setStyle("-fx-border-color: #cccccc; -fx-border-width: 0 0 0 1;");
+        // Fast-forward
+        Button btnFwd10 = new Button("+10");
+        Button btnFwd100 = new Button("+100");
+        Button btnUntilEvent = new Button("Do zdarzenia");
+        HBox fwdButtons = new HBox(5, btnFwd10, btnFwd100, btnUntilEvent);
+        Button btnCancel = new Button("Anuluj");
+        btnCancel.setMaxWidth(Double.MAX_VALUE);
+        btnCancel.setDisable(true);
+        ProgressBar runProgress = new ProgressBar(0);
+        runProgress.setMaxWidth(Double.MAX_VALUE);
+        Label runLabel = new Label("Tura: " + runner.getSnapshot().getTurn());
+
+        nav.getChildren().addAll(btnFleet, btnDrivers, btnJobs, btnReport, btnRanking, spacer, btnSave, btnEndGame, btnNext,
+                fwdButtons, btnCancel, runProgress, runLabel);
 
         // Center stack
         StackPane center = new StackPane();
         center.setPadding(new Insets(15));
         
         // Views
-        VBox fleetView = createFleetView(simulator, log);
-        VBox driversView = createDriversView(simulator, log);
-        VBox jobsView = createJobsView(simulator, log);
-        VBox reportView = createReportView(simulator, log);
-        VBox rankingView = createRankingView(simulator); // NOWY
+        FleetView fleetView = new FleetView(runner, log);
+        DriversView driversView = new DriversView(runner, log);
+        JobsView jobsView = new JobsView(runner, log);
+        VBox reportView = createReportView();
+        VBox rankingView = createRankingView(leaderboard); // NOWY
         
         center.getChildren().addAll(fleetView, driversView, jobsView, reportView, rankingView);
         setVisibleOnly(fleetView, driversView, jobsView, reportView, rankingView);
 
         // Wiring buttons
-        btnFleet.setOnAction(e -> { setVisibleOnly(fleetView, driversView, jobsView, reportView, rankingView); refreshFleetView(fleetView, simulator, log); });
-        btnDrivers.setOnAction(e -> { setVisibleOnly(driversView, fleetView, jobsView, reportView, rankingView); refreshDriversView(driversView, simulator, log); });
-        btnJobs.setOnAction(e -> { setVisibleOnly(jobsView, fleetView, driversView, reportView, rankingView); refreshJobsView(jobsView, simulator, log); });
-        btnReport.setOnAction(e -> { setVisibleOnly(reportView, fleetView, driversView, jobsView, rankingView); refreshReportView(reportView, simulator, log); });
-        btnRanking.setOnAction(e -> { setVisibleOnly(rankingView, fleetView, driversView, jobsView, reportView); refreshRankingView(rankingView, simulator); });
-
-        btnNext.setOnAction(e -> {
-            ProgressIndicator pi = new ProgressIndicator();
-            StageUtils.showTemporaryOverlay(center, pi);
-            btnNext.setDisable(true);
-
-            Task<String> t = new Task<>() {
-                @Override
-                protected String call() throws Exception {
-                    Thread.sleep(300);
-                    return simulator.nextTurn();
-                }
-
-                @Override
-                protected void succeeded() {
-                    StageUtils.hideTemporaryOverlay(center);
-                    log.appendText(getValue());
-                    log.appendText("\n-----------------\n");
-                    refreshAllViews(fleetView, driversView, jobsView, reportView, simulator, log);
-                    
-                    if (simulator.isGameOver()) {
-                        btnNext.setDisable(true);
-                        nav.setDisable(true);
-                        VBox bankruptcyScreen = BankruptcyScreen.create(simulator, onRestart);
-                        StageUtils.showTemporaryOverlay(center, bankruptcyScreen);
-                    } else {
-                        btnNext.setDisable(false);
-                    }
-                }
-
-                @Override
-                protected void failed() {
-                    StageUtils.hideTemporaryOverlay(center);
-                    log.appendText("Błąd krytyczny symulacji!\n");
-                    btnNext.setDisable(false);
-                }
-            };
-            new Thread(t).start();
+        btnFleet.setOnAction(e -> { setVisibleOnly(fleetView, driversView, jobsView, reportView, rankingView); fleetView.refresh(); });
+        btnDrivers.setOnAction(e -> { setVisibleOnly(driversView, fleetView, jobsView, reportView, rankingView); driversView.refresh(); });
+        btnJobs.setOnAction(e -> { setVisibleOnly(jobsView, fleetView, driversView, reportView, rankingView); jobsView.refresh(); });
+        btnReport.setOnAction(e -> { setVisibleOnly(reportView, fleetView, driversView, jobsView, rankingView); refreshReportView(reportView, runner.getSnapshot(), forecaster.getLatest()); });
+        btnRanking.setOnAction(e -> { setVisibleOnly(rankingView, fleetView, driversView, jobsView, reportView); refreshRankingView(rankingView, leaderboard); });
+        onLeaderboardChange[0] = () -> Platform.runLater(() -> refreshRankingView(rankingView, leaderboard));
+        leaderboard.addListener(onLeaderboardChange[0]);
+
+        List<Button> runButtons = List.of(btnNext, btnFwd10, btnFwd100, btnUntilEvent);
+        Runnable startRun = () -> {
+            runButtons.forEach(b -> b.setDisable(true));
+            btnCancel.setDisable(false);
+            runProgress.setProgress(0);
+        };
+        runner.setOnFrame(s -> {
+            if (runner.isRunning()) {
+                runProgress.setProgress(runner.getTarget() == 0 ? 1 : (double) runner.getDone() / runner.getTarget());
+                runLabel.setText(String.format("Tura: %d (%d/%d)", s.getTurn(), runner.getDone(), runner.getTarget()));
+            }
+            refreshAllViews(fleetView, driversView, jobsView, reportView, s, forecaster.getLatest());
+        });
+        forecaster.setOnForecast(f -> Platform.runLater(() -> {
+            if (reportView.isVisible()) refreshReportView(reportView, runner.getSnapshot(), f);
+        }));
+        runner.setOnFinished(() -> {
+            simulator.getJournal().flush();
+            btnCancel.setDisable(true);
+            GameSnapshot s = runner.getSnapshot();
+            runProgress.setProgress(1);
+            runLabel.setText("Tura: " + s.getTurn());
+            if (s.isGameOver()) {
+                nav.setDisable(true);
+                VBox bankruptcyScreen = BankruptcyScreen.create(s, restart);
+                StageUtils.showTemporaryOverlay(center, bankruptcyScreen);
+            } else {
+                runButtons.forEach(b -> b.setDisable(false));
+            }
         });
 
+        btnNext.setOnAction(e -> { startRun.run(); runner.start(1); });
+        btnFwd10.setOnAction(e -> { startRun.run(); runner.start(10); });
+        btnFwd100.setOnAction(e -> { startRun.run(); runner.start(100); });
+        btnUntilEvent.setOnAction(e -> { startRun.run(); runner.start(TurnRunner.UNTIL_EVENT_LIMIT, true); });
+        btnCancel.setOnAction(e -> runner.cancel());
+
         root.setLeft(nav);
         root.setCenter(center);
-        root.setRight(logBox);
+        root.setRight(log);
         return root;
     }
 
@@ -133,216 +184,22 @@ public class UIFactory {
         for (VBox h : hide) h.setVisible(false);
     }
 
-    private static void refreshAllViews(VBox fleet, VBox drivers, VBox jobs, VBox report, Simulator sim, TextArea log) {
-        if (fleet.isVisible()) refreshFleetView(fleet, sim, log);
-        if (drivers.isVisible()) refreshDriversView(drivers, sim, log);
-        if (jobs.isVisible()) refreshJobsView(jobs, sim, log);
-        if (report.isVisible()) refreshReportView(report, sim, log);
-    }
-
-    // ================= FLEET VIEW =================
-    private static VBox createFleetView(Simulator sim, TextArea log) { return new VBox(10); }
-
-    private static void refreshFleetView(VBox view, Simulator sim, TextArea log) {
-        view.getChildren().clear();
-        view.getChildren().add(header("Twoja Flota"));
-        ScrollPane scroll = new ScrollPane();
-        VBox list = new VBox(10);
-        list.setPadding(new Insets(10));
-        
-        for (Vehicle v : sim.getCompany().getVehicles()) {
-            HBox row = new HBox(15);
-            row.setAlignment(Pos.CENTER_LEFT);
-            row.setStyle("-fx-border-color: #ddd; -fx-padding: 8; -fx-background-color: white;");
-            
-            Label name = new Label(v.getName());
-            name.setFont(Font.font("System", FontWeight.BOLD, 12));
-            name.setPrefWidth(120);
-            
-            ProgressBar conditionBar = new ProgressBar(v.getCondition() / 100.0);
-            conditionBar.setStyle(v.getCondition() < 50 ? "-fx-accent: red;" : "-fx-accent: green;");
-            
-            VBox stats = new VBox(
-                new Label(String.format("Spalanie: %.2f", v.getFuelConsumptionPerKm())),
-                new Label(String.format("Konserwacja za: %d km", v.getMaintenanceIntervalKm() - v.getKmSinceMaintenance()))
-            );
-            stats.setPrefWidth(150);
-
-            Button btnRepair = new Button("Napraw (-100)");
-            btnRepair.setOnAction(e -> {
-                if (sim.getCompany().getCash() >= 100) {
-                    sim.getCompany().addCash(-100);
-                    v.repair(20);
-                    refreshFleetView(view, sim, log);
-                } else {
-                    log.appendText("Brak środków na naprawę!\n");
-                }
-            });
-
-            Button btnSell = new Button("Sprzedaj");
-            btnSell.setOnAction(e -> {
-                double price = sim.getCompany().sellVehicle(v);
-                if (price > 0) {
-                    log.appendText(String.format("Sprzedano %s za %.2f\n", v.getName(), price));
-                    refreshFleetView(view, sim, log);
-                }
-            });
-
-            if(sim.getCompany().isVehicleBusy(v)) {
-                btnSell.setDisable(true);
-                btnSell.setText("W trasie");
-            }
-
-            row.getChildren().addAll(name, new Label("Stan: " + v.getCondition() + "%"), conditionBar, stats, btnRepair, btnSell);
-            list.getChildren().add(row);
-        }
-        scroll.setContent(list);
-        view.getChildren().add(scroll);
-
-        view.getChildren().add(new Separator());
-        view.getChildren().add(header("Rynek Pojazdów"));
-        
-        VBox marketList = new VBox(5);
-        for (VehicleOffer offer : sim.getCompany().getVehicleMarket()) {
-            HBox row = new HBox(15);
-            row.setAlignment(Pos.CENTER_LEFT);
-            Label info = new Label(String.format("%s | Stan: %d%% | %.2f u/km | Cena: %.2f", 
-                offer.getName(), offer.getCondition(), offer.getFuelConsumption(), offer.getPrice()));
-            info.setPrefWidth(400);
-            
-            Button buy = new Button("Kup");
-            buy.setOnAction(e -> {
-                if (sim.getCompany().buyOffer(offer)) {
-                    log.appendText("Zakupiono " + offer.getName() + "\n");
-                    refreshFleetView(view, sim, log);
-                } else {
-                    log.appendText("Brak środków!\n");
-                }
-            });
-            row.getChildren().addAll(info, buy);
-            marketList.getChildren().add(row);
-        }
-        view.getChildren().add(marketList);
-    }
-
-    // ================= DRIVERS VIEW =================
-    private static VBox createDriversView(Simulator sim, TextArea log) { return new VBox(10); }
-
-    private static void refreshDriversView(VBox view, Simulator sim, TextArea log) {
-        view.getChildren().clear();
-        view.getChildren().add(header("Zespół Kierowców"));
-        VBox list = new VBox(10);
-        for (Driver d : sim.getCompany().getDrivers()) {
-            HBox row = new HBox(15);
-            row.setAlignment(Pos.CENTER_LEFT);
-            row.setStyle("-fx-background-color: white; -fx-padding: 8; -fx-border-color: #ddd;");
-            
-            Label name = new Label(d.getName());
-            name.setPrefWidth(120);
-            name.setStyle("-fx-font-weight: bold");
-
-            ComboBox<String> vehCombo = new ComboBox<>();
-            vehCombo.getItems().add("Brak pojazdu");
-            List<Vehicle> availableVehicles = sim.getCompany().getVehicles().stream()
-                .filter(v -> {
-                    Driver owner = sim.getCompany().getDriverForVehicle(v);
-                    return owner == null || owner == d;
-                }).collect(Collectors.toList());
-
-            for(Vehicle v : availableVehicles) vehCombo.getItems().add(v.getName());
-            vehCombo.setValue(d.getAssignedVehicle() != null ? d.getAssignedVehicle().getName() : "Brak pojazdu");
-
-            Button btnAssign = new Button("Zmień");
-            if (sim.getCompany().isDriverBusy(d)) {
-                vehCombo.setDisable(true);
-                btnAssign.setDisable(true);
-                btnAssign.setText("W trasie");
-            }
-
-            btnAssign.setOnAction(e -> {
-                String selected = vehCombo.getValue();
-                if (selected == null || selected.equals("Brak pojazdu")) d.setAssignedVehicle(null);
-                else {
-                    Vehicle v = sim.getCompany().getVehicles().stream()
-                        .filter(vh -> vh.getName().equals(selected)).findFirst().orElse(null);
-                    d.setAssignedVehicle(v);
-                }
-                refreshDriversView(view, sim, log);
-            });
-            
-            Button btnTrain = new Button("Szkol ($50)");
-            btnTrain.setOnAction(e -> {
-                 if (sim.getCompany().getCash() >= 50) {
-                     sim.getCompany().addCash(-50);
-                     d.train(5);
-                     refreshDriversView(view, sim, log);
-                 }
-            });
-
-            row.getChildren().addAll(name, new Label("Skill: " + d.getSkill()), new Label("Pojazd:"), vehCombo, btnAssign, btnTrain);
-            list.getChildren().add(row);
-        }
-        view.getChildren().add(list);
-        view.getChildren().add(new Separator());
-        view.getChildren().add(header("Giełda Pracy (Kandydaci)"));
-        for(DriverCandidate c : sim.getCompany().getCandidates()) {
-            HBox row = new HBox(15);
-            row.setAlignment(Pos.CENTER_LEFT);
-            row.getChildren().addAll(new Label(c.getName()), new Label("Skill: " + c.getSkill()), 
-                button("Zatrudnij", () -> {
-                    if (sim.getCompany().hireCandidate(c)) {
-                        refreshDriversView(view, sim, log);
-                    }
-                }));
-            view.getChildren().add(row);
-        }
-    }
-
-    // ================= JOBS VIEW =================
-    private static VBox createJobsView(Simulator sim, TextArea log) { return new VBox(10); }
-
-    private static void refreshJobsView(VBox view, Simulator sim, TextArea log) {
-        view.getChildren().clear();
-        view.getChildren().add(header("Dostępne Zlecenia"));
-        List<Driver> availableDrivers = sim.getCompany().getDrivers().stream()
-            .filter(d -> d.hasVehicle() && !sim.getCompany().isDriverBusy(d))
-            .collect(Collectors.toList());
-
-        for (Job j : sim.getCompany().getJobs()) {
-            HBox row = new HBox(12);
-            row.setAlignment(Pos.CENTER_LEFT);
-            row.setPadding(new Insets(5));
-            if (j.isAssigned()) {
-                row.setStyle("-fx-background-color: #e8f5e9;");
-                row.getChildren().add(new Label(j.getTitle() + " | " + j.getAssignedDriver().getName() + " [ETA: " + j.getTurnsRemaining() + "]"));
-            } else {
-                VBox details = new VBox(new Label(j.getTitle()), new Label("Dystans: " + j.getRouteLength() + " km"));
-                details.setPrefWidth(250);
-                ComboBox<Driver> drvCombo = new ComboBox<>(FXCollections.observableArrayList(availableDrivers));
-                drvCombo.setPromptText("Wybierz kierowcę...");
-                Button btnStart = new Button("Start");
-                btnStart.setOnAction(e -> {
-                    Driver d = drvCombo.getValue();
-                    if (d != null) {
-                        j.assign(d, d.getAssignedVehicle());
-                        refreshJobsView(view, sim, log);
-                    }
-                });
-                row.getChildren().addAll(details, drvCombo, btnStart);
-            }
-            view.getChildren().add(row);
-        }
+    private static void refreshAllViews(FleetView fleet, DriversView drivers, JobsView jobs, VBox report, GameSnapshot s, Forecast f) {
+        if (fleet.isVisible()) fleet.refresh();
+        if (drivers.isVisible()) drivers.refresh();
+        if (jobs.isVisible()) jobs.refresh();
+        if (report.isVisible()) refreshReportView(report, s, f);
     }
 
     // ================= REPORT VIEW =================
-    private static VBox createReportView(Simulator sim, TextArea log) { return new VBox(10); }
+    private static VBox createReportView() { return new VBox(10); }
 
-    private static void refreshReportView(VBox view, Simulator sim, TextArea log) {
+    private static void refreshReportView(VBox view, GameSnapshot s, Forecast f) {
         view.getChildren().clear();
         view.getChildren().add(header("Podsumowanie Finansowe"));
-        Label lCash = new Label(String.format("Gotówka: $%.2f", sim.getCompany().getCash()));
+        Label lCash = new Label(String.format("Gotówka: $%.2f", s.getCash()));
         lCash.setFont(Font.font("System", FontWeight.BOLD, 16));
-        view.getChildren().addAll(lCash, new Label("Tura: " + sim.getTurn()), new Label("Reputacja: " + sim.getCompany().getReputation()));
+        view.getChildren().addAll(lCash, new Label("Tura: " + s.getTurn()), new Label("Reputacja: " + s.getReputation()));
         
         TableView<JobRow> table = new TableView<>();
         TableColumn<JobRow, String> cName = new TableColumn<>("Zlecenie"); cName.setCellValueFactory(new PropertyValueFactory<>("title"));
@@ -350,24 +207,42 @@ public class UIFactory {
         table.getColumns().addAll(cName, cRes);
         
         ObservableList<JobRow> data = FXCollections.observableArrayList();
-        for(Job j : sim.getCompletedThisTurn()) data.add(new JobRow(j.getTitle(), j.getResult()));
+        for(GameSnapshot.JobInfo j : s.getCompletedThisTurn()) data.add(new JobRow(j.getTitle(), j.getResult()));
         table.setItems(data);
         view.getChildren().add(table);
+        view.getChildren().add(createForecastPane(f));
+    }
+
+    private static final int[] FORECAST_TURNS = {5, 10, 20};
+
+    // Bankruptcy risk and cash band from the background forecast, may lag a few turns behind
+    private static VBox createForecastPane(Forecast f) {
+        VBox pane = new VBox(5);
+        pane.getChildren().add(header("Prognoza"));
+        if (f == null) {
+            pane.getChildren().add(new Label("Prognoza w przygotowaniu..."));
+            return pane;
+        }
+        pane.getChildren().add(new Label(String.format("Od tury %d, %d symulacji (tylko auto-przydział, bez zakupów)", f.getFromTurn(), f.getForks())));
+        for (int t : FORECAST_TURNS) {
+            if (t > f.getHorizon()) break;
+            Label l = new Label(String.format("+%d tur: ryzyko bankructwa %.0f%%, gotówka $%.0f – $%.0f (mediana $%.0f)",
+                    t, f.bankruptcyWithin(t) * 100, f.cashLow(t), f.cashHigh(t), f.cashMedian(t)));
+            if (f.bankruptcyWithin(t) >= 0.25) l.setTextFill(Color.RED);
+            pane.getChildren().add(l);
+        }
+        return pane;
     }
 
     // ================= RANKING VIEW (NOWY) =================
-    private static VBox createRankingView(Simulator sim) {
+    // Rendered from the in-memory leaderboard cache, never from disk
+    private static VBox createRankingView(LeaderboardCache leaderboard) {
         VBox view = new VBox(15);
         view.setPadding(new Insets(10));
-        refreshRankingView(view, sim);
-        return view;
-    }
-
-    private static void refreshRankingView(VBox view, Simulator sim) {
-        view.getChildren().clear();
         view.getChildren().add(header("NAJLEPSZE WYNIKI (TOP 10)"));
         
         TableView<ScoreRecord> table = new TableView<>();
+        table.setPlaceholder(new Label("Wczytywanie wyników..."));
         TableColumn<ScoreRecord, String> colName = new TableColumn<>("Gracz");
         colName.setCellValueFactory(new PropertyValueFactory<>("playerName"));
         colName.setPrefWidth(150);
@@ -379,19 +254,32 @@ public class UIFactory {
         colTurns.setCellValueFactory(new PropertyValueFactory<>("turnsReached"));
 
         table.getColumns().addAll(colName, colScore, colTurns);
-        table.getItems().setAll(new ScoreService().loadScores(new File(".")));
-        
         view.getChildren().add(table);
+        view.setUserData(table);
+        refreshRankingView(view, leaderboard);
+        return view;
     }
 
-    private static Label header(String text) {
+    @SuppressWarnings("unchecked")
+    private static void refreshRankingView(VBox view, LeaderboardCache leaderboard) {
+        TableView<ScoreRecord> table = (TableView<ScoreRecord>) view.getUserData();
+        if (leaderboard.isLoaded()) table.setPlaceholder(new Label("Brak wyników"));
+        table.getItems().setAll(leaderboard.top());
+    }
+
+    static Label header(String text) {
         Label l = new Label(text);
         l.setFont(Font.font("System", FontWeight.BOLD, 14));
         l.setPadding(new Insets(5, 0, 5, 0));
         return l;
     }
 
-    private static Button button(String text, Runnable action) {
+    /** Runs {@code action} on the FX thread with the result of a command. */
+    static <T> void onFx(CompletableFuture<T> result, Consumer<T> action) {
+        result.thenAcceptAsync(action, Platform::runLater);
+    }
+
+    static Button button(String text, Runnable action) {
         Button b = new Button(text);
         b.setOnAction(e -> action.run());
         return b;